@@ -97,6 +97,13 @@ android {
             isUniversalApk = true
         }
     }
+
+    // Robolectric unit tests for the wearable channel, run against FakeWearableBackend
+    testOptions {
+        unitTests {
+            isIncludeAndroidResources = true
+        }
+    }
 }
 
 flutter {
@@ -106,4 +113,7 @@ flutter {
 dependencies {
     implementation(files("libs/xms-wearable-lib_1.4_release.aar"))
     implementation("com.google.android.gms:play-services-tasks:18.0.2")
+
+    testImplementation("junit:junit:4.13.2")
+    testImplementation("org.robolectric:robolectric:4.14.1")
 }
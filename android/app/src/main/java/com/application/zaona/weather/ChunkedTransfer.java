@@ -0,0 +1,208 @@
+package com.application.zaona.weather;
+
+import android.os.Handler;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * 分片传输：将大数据按序号切片，以滑动窗口发送，并依据手表的累计确认推进
+ *
+ * 分片格式：[0xC0][传输编号 varint][分片序号 varint][分片总数 varint][数据]，
+ * 首字节不会与天气数据帧的版本号冲突。手表以文本 "ack:<传输编号>:<下一个期望序号>" 确认。
+ * 发送失败或长时间无确认时进入暂停状态，恢复后从最后确认的分片继续发送。
+ * 所有方法仅在主线程调用。
+ */
+final class ChunkedTransfer {
+    static final int CHUNK_MARKER = 0xC0;
+    static final String ACK_PREFIX = "ack:";
+
+    static final int DEFAULT_CHUNK_SIZE = 1024;
+    private static final int WINDOW_SIZE = 4;
+    private static final long ACK_TIMEOUT_MS = 3000;
+    private static final int MAX_STALLS = 3;
+    private static final long RESUME_DELAY_MS = 2000;
+    private static final int MAX_RESUMES = 5;
+
+    static final String STATE_SENDING = "sending";
+    static final String STATE_PAUSED = "paused";
+    static final String STATE_COMPLETED = "completed";
+    static final String STATE_FAILED = "failed";
+
+    interface Listener {
+        void onProgress(ChunkedTransfer transfer);
+
+        void onFinished(ChunkedTransfer transfer, Exception error);
+    }
+
+    final int transferId;
+    final String nodeId;
+
+    private final byte[] payload;
+    private final int chunkSize;
+    private final int totalChunks;
+    private final WearableBackend.MessageClient messageApi;
+    private final Handler handler;
+    private final Listener listener;
+
+    private final Runnable ackTimeoutTask = this::onAckTimeout;
+    private final Runnable resumeTask = this::resume;
+
+    private int acked;
+    private int nextToSend;
+    private int stalls;
+    private int resumes;
+    private String state = STATE_SENDING;
+    private Exception lastError;
+
+    ChunkedTransfer(
+            int transferId,
+            String nodeId,
+            byte[] payload,
+            int chunkSize,
+            WearableBackend.MessageClient messageApi,
+            Handler handler,
+            Listener listener
+    ) {
+        this.transferId = transferId;
+        this.nodeId = nodeId;
+        this.payload = payload;
+        this.chunkSize = chunkSize > 0 ? chunkSize : DEFAULT_CHUNK_SIZE;
+        this.totalChunks = (payload.length + this.chunkSize - 1) / this.chunkSize;
+        this.messageApi = messageApi;
+        this.handler = handler;
+        this.listener = listener;
+    }
+
+    void start() {
+        fillWindow();
+    }
+
+    int getAcked() {
+        return acked;
+    }
+
+    int getTotalChunks() {
+        return totalChunks;
+    }
+
+    String getState() {
+        return state;
+    }
+
+    boolean isPaused() {
+        return STATE_PAUSED.equals(state);
+    }
+
+    /**
+     * 处理手表的累计确认，nextExpected 之前的分片均视为已送达
+     */
+    void onAck(int nextExpected) {
+        if (!STATE_SENDING.equals(state) && !isPaused()) {
+            return;
+        }
+        if (nextExpected <= acked) {
+            return;
+        }
+        acked = Math.min(nextExpected, totalChunks);
+        nextToSend = Math.max(nextToSend, acked);
+        stalls = 0;
+        handler.removeCallbacks(ackTimeoutTask);
+
+        if (acked >= totalChunks) {
+            finish(STATE_COMPLETED, null);
+            return;
+        }
+        listener.onProgress(this);
+        if (STATE_SENDING.equals(state)) {
+            fillWindow();
+        }
+    }
+
+    /**
+     * 从最后确认的分片继续发送
+     */
+    void resume() {
+        if (!isPaused()) {
+            return;
+        }
+        handler.removeCallbacks(resumeTask);
+        state = STATE_SENDING;
+        nextToSend = acked;
+        stalls = 0;
+        listener.onProgress(this);
+        fillWindow();
+    }
+
+    void cancel() {
+        handler.removeCallbacks(ackTimeoutTask);
+        handler.removeCallbacks(resumeTask);
+        state = STATE_FAILED;
+    }
+
+    private void fillWindow() {
+        while (STATE_SENDING.equals(state) && nextToSend < totalChunks && nextToSend - acked < WINDOW_SIZE) {
+            sendChunk(nextToSend++);
+        }
+        handler.removeCallbacks(ackTimeoutTask);
+        if (STATE_SENDING.equals(state) && acked < nextToSend) {
+            handler.postDelayed(ackTimeoutTask, ACK_TIMEOUT_MS);
+        }
+    }
+
+    private void sendChunk(int sequence) {
+        messageApi.sendMessage(nodeId, buildChunk(sequence))
+                .addOnFailureListener(handler::post, this::pause);
+    }
+
+    private byte[] buildChunk(int sequence) {
+        int offset = sequence * chunkSize;
+        int length = Math.min(chunkSize, payload.length - offset);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(length + 16);
+        out.write(CHUNK_MARKER);
+        WeatherPayloadEncoder.writeVarint(out, transferId);
+        WeatherPayloadEncoder.writeVarint(out, sequence);
+        WeatherPayloadEncoder.writeVarint(out, totalChunks);
+        out.write(payload, offset, length);
+        return out.toByteArray();
+    }
+
+    private void onAckTimeout() {
+        if (!STATE_SENDING.equals(state)) {
+            return;
+        }
+        stalls++;
+        if (stalls >= MAX_STALLS) {
+            pause(null);
+            return;
+        }
+        // 回退到最后确认的分片重发整个窗口
+        nextToSend = acked;
+        fillWindow();
+    }
+
+    private void pause(Exception error) {
+        if (!STATE_SENDING.equals(state)) {
+            return;
+        }
+        if (error != null) {
+            lastError = error;
+        }
+        handler.removeCallbacks(ackTimeoutTask);
+        if (resumes >= MAX_RESUMES) {
+            finish(STATE_FAILED, lastError);
+            return;
+        }
+        resumes++;
+        state = STATE_PAUSED;
+        listener.onProgress(this);
+        handler.postDelayed(resumeTask, RESUME_DELAY_MS * resumes);
+    }
+
+    private void finish(String finalState, Exception error) {
+        handler.removeCallbacks(ackTimeoutTask);
+        handler.removeCallbacks(resumeTask);
+        state = finalState;
+        listener.onProgress(this);
+        listener.onFinished(this, error);
+    }
+}
@@ -0,0 +1,221 @@
+package com.application.zaona.weather;
+
+import android.util.Log;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 预报磁盘缓存：按 (API Host, 预报天数, 位置) 保存最近一次成功的响应，进程重启后仍可立即使用
+ *
+ * 每个键一个文件，写入先落到临时文件再重命名，避免读到半截数据；内存中保留最近用到的条目。
+ * 新鲜度以获取时间和响应中的 updateTime 推算：数据刚由服务端更新时视为新鲜更久，
+ * 过了新鲜期但未超过 MAX_STALE_MS 的条目仍可先返回，再由调用方在后台重新验证。
+ * 超过 MAX_STALE_MS 的条目读到时删除，写入时顺带按修改时间清理目录，坐标和位置再多也不会一直堆积文件。
+ * 所有方法线程安全。
+ */
+final class ForecastCache {
+    private static final String TAG = "ForecastCache";
+    private static final String DIR_NAME = "qweather_forecast";
+
+    // 获取后至少视为新鲜的时间，避免连续点击重复请求
+    static final long MIN_FRESH_MS = 5 * 60 * 1000L;
+    // 和风天气每日预报大约每小时更新一次，从 updateTime 起按此间隔推算下一次更新
+    static final long UPDATE_INTERVAL_MS = 60 * 60 * 1000L;
+    // 超过此时长的条目不再返回，文件随之删除
+    static final long MAX_STALE_MS = 24 * 60 * 60 * 1000L;
+
+    private static final int MAX_MEMORY_ENTRIES = 8;
+    // 两次目录清理的最小间隔
+    private static final long SWEEP_INTERVAL_MS = 60 * 60 * 1000L;
+
+    static final class Entry {
+        final String body;
+        final long fetchedAt;
+        final long freshUntil;
+
+        Entry(String body, long fetchedAt, long freshUntil) {
+            this.body = body;
+            this.fetchedAt = fetchedAt;
+            this.freshUntil = freshUntil;
+        }
+
+        boolean isFresh(long now) {
+            return now < freshUntil;
+        }
+
+        boolean isUsable(long now) {
+            return now - fetchedAt < MAX_STALE_MS;
+        }
+    }
+
+    private final File dir;
+    private long lastSweptAt;
+    private final Map<String, Entry> memory = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_MEMORY_ENTRIES;
+        }
+    };
+
+    ForecastCache(File cacheDir) {
+        dir = new File(cacheDir, DIR_NAME);
+    }
+
+    static String key(String host, String days, String location) {
+        return sanitize(host) + "_" + sanitize(days) + "_" + sanitize(location);
+    }
+
+    /**
+     * 读取条目，超过 MAX_STALE_MS 的条目直接删除并返回 null
+     */
+    synchronized Entry get(String key) {
+        File file = new File(dir, key);
+        Entry entry = memory.get(key);
+        if (entry == null) {
+            entry = read(file);
+        }
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.isUsable(System.currentTimeMillis())) {
+            memory.remove(key);
+            file.delete();
+            return null;
+        }
+        memory.put(key, entry);
+        return entry;
+    }
+
+    /**
+     * 保存一次响应，返回码不是 200 或无法解析时不缓存并返回 null
+     */
+    synchronized Entry put(String key, String body, long now) {
+        JSONObject json;
+        try {
+            json = new JSONObject(body);
+        } catch (JSONException e) {
+            return null;
+        }
+        if (!"200".equals(json.optString("code"))) {
+            return null;
+        }
+        Entry entry = new Entry(body, now, freshUntil(json.optString("updateTime", ""), now));
+        memory.put(key, entry);
+        write(new File(dir, key), entry);
+        sweep(now);
+        return entry;
+    }
+
+    /**
+     * 删除修改时间早于 MAX_STALE_MS 的文件，包括写入中断留下的临时文件
+     */
+    private void sweep(long now) {
+        if (now - lastSweptAt < SWEEP_INTERVAL_MS) {
+            return;
+        }
+        lastSweptAt = now;
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (now - file.lastModified() >= MAX_STALE_MS) {
+                memory.remove(file.getName());
+                file.delete();
+            }
+        }
+    }
+
+    static long freshUntil(String updateTime, long fetchedAt) {
+        long freshUntil = fetchedAt + MIN_FRESH_MS;
+        long updatedAt = parseUpdateTime(updateTime);
+        if (updatedAt > 0) {
+            freshUntil = Math.max(freshUntil, updatedAt + UPDATE_INTERVAL_MS);
+        }
+        return Math.min(freshUntil, fetchedAt + UPDATE_INTERVAL_MS);
+    }
+
+    /**
+     * updateTime 形如 2024-06-01T10:35+08:00，解析失败返回 0
+     */
+    private static long parseUpdateTime(String updateTime) {
+        // 低版本系统不支持 XXX 时区格式，先把 +08:00 改写为 +0800
+        int length = updateTime.length();
+        if (length < 6 || updateTime.charAt(length - 3) != ':') {
+            return 0;
+        }
+        String normalized = updateTime.substring(0, length - 3) + updateTime.substring(length - 2);
+        try {
+            SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mmZ", Locale.US);
+            return format.parse(normalized).getTime();
+        } catch (ParseException e) {
+            return 0;
+        }
+    }
+
+    private static Entry read(File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] bytes = new byte[(int) file.length()];
+            int offset = 0;
+            int read;
+            while (offset < bytes.length && (read = in.read(bytes, offset, bytes.length - offset)) != -1) {
+                offset += read;
+            }
+            JSONObject json = new JSONObject(new String(bytes, 0, offset, StandardCharsets.UTF_8));
+            return new Entry(json.getString("body"), json.getLong("fetchedAt"), json.getLong("freshUntil"));
+        } catch (IOException | JSONException e) {
+            Log.w(TAG, "缓存文件损坏，已忽略: " + file.getName());
+            file.delete();
+            return null;
+        }
+    }
+
+    private static void write(File file, Entry entry) {
+        File dir = file.getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            return;
+        }
+        File temp = new File(file.getPath() + ".tmp");
+        try (OutputStream out = new FileOutputStream(temp)) {
+            JSONObject json = new JSONObject();
+            json.put("body", entry.body);
+            json.put("fetchedAt", entry.fetchedAt);
+            json.put("freshUntil", entry.freshUntil);
+            out.write(json.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException | JSONException e) {
+            Log.w(TAG, "写入缓存失败: " + e.getMessage());
+            temp.delete();
+            return;
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+        }
+    }
+
+    private static String sanitize(String value) {
+        StringBuilder out = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            boolean safe = c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '.' || c == '-';
+            out.append(safe ? c : '_');
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,124 @@
+package com.application.zaona.weather;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 经纬度反查缓存：坐标按网格量化后映射到城市，GPS 小范围移动时不再请求 geo 接口
+ *
+ * 网格边长 0.01°（约 1 km），远小于一个区县的范围。条目按最近使用淘汰，
+ * 写入时保存到 SharedPreferences，重启后仍然有效。所有方法线程安全。
+ */
+final class GeoCache {
+    private static final String PREFS_NAME = "qweather_geo_cache";
+    private static final String ENTRIES_KEY = "entries";
+    private static final double CELL_DEGREES = 0.01;
+    private static final int MAX_ENTRIES = 64;
+
+    private final SharedPreferences preferences;
+    // 网格 -> geo 接口返回的单个城市对象（JSON 文本）
+    private Map<String, String> entries;
+
+    GeoCache(Context context) {
+        preferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * 把 "经度,纬度" 量化为网格键，格式不正确时返回 null
+     */
+    static String cellOf(String coordinates) {
+        int separator = coordinates.indexOf(',');
+        if (separator <= 0) {
+            return null;
+        }
+        try {
+            double longitude = Double.parseDouble(coordinates.substring(0, separator).trim());
+            double latitude = Double.parseDouble(coordinates.substring(separator + 1).trim());
+            if (Math.abs(longitude) > 180 || Math.abs(latitude) > 90) {
+                return null;
+            }
+            long x = Math.round(longitude / CELL_DEGREES);
+            long y = Math.round(latitude / CELL_DEGREES);
+            return String.format(Locale.US, "%d:%d", x, y);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    synchronized String get(String cell) {
+        return load().get(cell);
+    }
+
+    synchronized void put(String cell, String city) {
+        load().put(cell, city);
+        // 按最近使用顺序保存，重启后淘汰顺序不变
+        JSONArray json = new JSONArray();
+        try {
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                json.put(new JSONObject().put("cell", entry.getKey()).put("city", entry.getValue()));
+            }
+        } catch (JSONException e) {
+            return;
+        }
+        preferences.edit().putString(ENTRIES_KEY, json.toString()).apply();
+    }
+
+    /**
+     * 按 geo 接口的响应格式包装单个城市，调用方无需区分是否命中缓存
+     */
+    static String toLookupBody(String city) throws JSONException {
+        JSONObject body = new JSONObject();
+        body.put("code", "200");
+        body.put("location", new JSONArray().put(new JSONObject(city)));
+        return body.toString();
+    }
+
+    /**
+     * 取出 geo 响应中的第一个城市，没有结果时返回 null
+     */
+    static String firstCity(String lookupBody) {
+        try {
+            JSONObject body = new JSONObject(lookupBody);
+            JSONArray locations = body.optJSONArray("location");
+            if (!"200".equals(body.optString("code")) || locations == null || locations.length() == 0) {
+                return null;
+            }
+            return locations.getJSONObject(0).toString();
+        } catch (JSONException e) {
+            return null;
+        }
+    }
+
+    private Map<String, String> load() {
+        if (entries != null) {
+            return entries;
+        }
+        entries = new LinkedHashMap<String, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > MAX_ENTRIES;
+            }
+        };
+        String saved = preferences.getString(ENTRIES_KEY, null);
+        if (saved != null) {
+            try {
+                JSONArray json = new JSONArray(saved);
+                for (int i = 0; i < json.length(); i++) {
+                    JSONObject entry = json.getJSONObject(i);
+                    entries.put(entry.getString("cell"), entry.getString("city"));
+                }
+            } catch (JSONException e) {
+                entries.clear();
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,227 @@
+package com.application.zaona.weather;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 按设备学习握手耗时，推算探测间隔和超时
+ *
+ * 分别记录启动快应用到收到 ready、发送探测到 SDK 确认两段耗时，各自维护指数加权均值与平均偏差
+ * （权重与 TCP 往返时间估计相同）。样本不足时使用默认参数。超时只说明耗时不短于已等待的时间，
+ * 不计入均值，而是给下次超时追加固定步长（有上限），收到 ready 后清零；慢设备连续超时后等待逐步变长，
+ * 一次偶发的超时也不会抬高之后的估计。只在主线程使用，每次握手结束后调用 persist 写入 SharedPreferences。
+ */
+final class HandshakeTimingModel {
+    private static final String PREFS_NAME = "wearable_handshake_timing";
+    private static final String NODES_KEY = "nodes";
+    private static final double MEAN_GAIN = 0.125;
+    private static final double DEVIATION_GAIN = 0.25;
+    private static final int MIN_SAMPLES = 3;
+    private static final int MAX_NODES = 16;
+
+    private static final long MIN_INTERVAL_MS = 100;
+    // 探测间隔最多退避到确认耗时推算值的倍数
+    private static final int MAX_INTERVAL_FACTOR = 4;
+    private static final long MIN_TIMEOUT_MS = 3000;
+    private static final long MAX_TIMEOUT_MS = 20_000;
+    // 每次超时追加的等待时间与累计上限
+    private static final long TIMEOUT_STEP_MS = 2000;
+    private static final long MAX_TIMEOUT_EXTRA_MS = 8000;
+
+    static final class Timing {
+        final long initialIntervalMs;
+        final long maxIntervalMs;
+        final long timeoutMs;
+        final boolean learned;
+
+        Timing(long initialIntervalMs, long maxIntervalMs, long timeoutMs, boolean learned) {
+            this.initialIntervalMs = initialIntervalMs;
+            this.maxIntervalMs = maxIntervalMs;
+            this.timeoutMs = timeoutMs;
+            this.learned = learned;
+        }
+    }
+
+    private static final class Estimate {
+        double mean;
+        double deviation;
+        int samples;
+
+        void add(double sample) {
+            if (samples == 0) {
+                mean = sample;
+                deviation = sample / 2;
+            } else {
+                deviation += DEVIATION_GAIN * (Math.abs(sample - mean) - deviation);
+                mean += MEAN_GAIN * (sample - mean);
+            }
+            samples++;
+        }
+
+        boolean isReliable() {
+            return samples >= MIN_SAMPLES;
+        }
+
+        JSONObject toJson() throws JSONException {
+            return new JSONObject().put("mean", mean).put("deviation", deviation).put("samples", samples);
+        }
+
+        static Estimate fromJson(JSONObject json) {
+            Estimate estimate = new Estimate();
+            if (json != null) {
+                estimate.mean = json.optDouble("mean", 0);
+                estimate.deviation = json.optDouble("deviation", 0);
+                estimate.samples = json.optInt("samples", 0);
+            }
+            return estimate;
+        }
+    }
+
+    private static final class NodeModel {
+        Estimate ready = new Estimate();
+        Estimate ack = new Estimate();
+        long timeoutExtraMs;
+    }
+
+    private final SharedPreferences preferences;
+    private Map<String, NodeModel> nodes;
+    private boolean dirty;
+
+    HandshakeTimingModel(Context context) {
+        preferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * 探测间隔不低于 SDK 确认一条消息的时间，退避上限为其若干倍，不超过默认上限；
+     * 超时取 ready 均值加四倍偏差（至少为均值的 1.5 倍，避免耗时稳定的设备偶尔变慢就失败），再留出一次探测往返，
+     * 最后加上连续超时累计的追加时间
+     */
+    Timing timingFor(String nodeId, Timing defaults) {
+        NodeModel model = load().get(nodeId);
+        if (model == null) {
+            return defaults;
+        }
+        long initial = defaults.initialIntervalMs;
+        long maxInterval = defaults.maxIntervalMs;
+        if (model.ack.isReliable()) {
+            initial = clamp(Math.round(model.ack.mean + 2 * model.ack.deviation), MIN_INTERVAL_MS, defaults.maxIntervalMs);
+            maxInterval = Math.min(initial * MAX_INTERVAL_FACTOR, defaults.maxIntervalMs);
+        }
+        if (!model.ready.isReliable()) {
+            return new Timing(
+                    initial,
+                    maxInterval,
+                    defaults.timeoutMs + model.timeoutExtraMs,
+                    model.ack.isReliable() || model.timeoutExtraMs > 0
+            );
+        }
+        long timeout = clamp(
+                Math.round(Math.max(model.ready.mean + 4 * model.ready.deviation, 1.5 * model.ready.mean) + 2 * initial)
+                        + model.timeoutExtraMs,
+                MIN_TIMEOUT_MS,
+                MAX_TIMEOUT_MS
+        );
+        return new Timing(initial, maxInterval, timeout, true);
+    }
+
+    void recordReady(String nodeId, long latencyMs) {
+        NodeModel model = node(nodeId);
+        model.ready.add(latencyMs);
+        model.timeoutExtraMs = 0;
+        dirty = true;
+    }
+
+    /**
+     * 每个探测确认都会调用，只更新内存，由握手结束时的 persist 统一写入
+     */
+    void recordAck(String nodeId, long latencyMs) {
+        node(nodeId).ack.add(latencyMs);
+        dirty = true;
+    }
+
+    /**
+     * 超时时实际耗时未知（删失样本），不更新 ready 估计，只把下次的超时放宽一个步长
+     */
+    void recordTimeout(String nodeId) {
+        NodeModel model = node(nodeId);
+        model.timeoutExtraMs = Math.min(model.timeoutExtraMs + TIMEOUT_STEP_MS, MAX_TIMEOUT_EXTRA_MS);
+        dirty = true;
+    }
+
+    /**
+     * 有更新时写入 SharedPreferences，每次握手结束调用一次
+     */
+    void persist() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        save();
+    }
+
+    private NodeModel node(String nodeId) {
+        NodeModel model = load().get(nodeId);
+        if (model == null) {
+            model = new NodeModel();
+            nodes.put(nodeId, model);
+        }
+        return model;
+    }
+
+    private static long clamp(long value, long min, long max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private Map<String, NodeModel> load() {
+        if (nodes != null) {
+            return nodes;
+        }
+        nodes = new LinkedHashMap<String, NodeModel>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, NodeModel> eldest) {
+                return size() > MAX_NODES;
+            }
+        };
+        String saved = preferences.getString(NODES_KEY, null);
+        if (saved != null) {
+            try {
+                JSONObject json = new JSONObject(saved);
+                Iterator<String> keys = json.keys();
+                while (keys.hasNext()) {
+                    String nodeId = keys.next();
+                    JSONObject entry = json.getJSONObject(nodeId);
+                    NodeModel model = new NodeModel();
+                    model.ready = Estimate.fromJson(entry.optJSONObject("ready"));
+                    model.ack = Estimate.fromJson(entry.optJSONObject("ack"));
+                    model.timeoutExtraMs = Math.max(0, Math.min(entry.optLong("timeoutExtra", 0), MAX_TIMEOUT_EXTRA_MS));
+                    nodes.put(nodeId, model);
+                }
+            } catch (JSONException e) {
+                nodes.clear();
+            }
+        }
+        return nodes;
+    }
+
+    private void save() {
+        JSONObject json = new JSONObject();
+        try {
+            for (Map.Entry<String, NodeModel> entry : nodes.entrySet()) {
+                json.put(entry.getKey(), new JSONObject()
+                        .put("ready", entry.getValue().ready.toJson())
+                        .put("ack", entry.getValue().ack.toJson())
+                        .put("timeoutExtra", entry.getValue().timeoutExtraMs));
+            }
+        } catch (JSONException e) {
+            return;
+        }
+        preferences.edit().putString(NODES_KEY, json.toString()).apply();
+    }
+}
@@ -0,0 +1,100 @@
+package com.application.zaona.weather;
+
+import android.os.SystemClock;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 按 API Host 限制请求速率：令牌桶控制平均速率与突发数量，收到 429 后该 Host 暂停到服务端要求的时间
+ *
+ * 和风天气按 Key 计算配额和频率，交互请求与预取共用同一个限流器。暂停期间 acquire 立即抛出
+ * ThrottledException，交互请求不会被挂起几十秒；只有预取通过 awaitResume 等到暂停结束再试。
+ * 线程安全，acquire 可能为等待令牌短暂阻塞，只能在网络线程调用。
+ */
+final class HostRateLimiter {
+    static final String THROTTLED_MESSAGE = "请求过于频繁，请稍后再试";
+
+    private static final class Bucket {
+        double tokens;
+        long refilledAt;
+        long pausedUntil;
+    }
+
+    private final double permitsPerSecond;
+    private final int burst;
+    private final Map<String, Bucket> buckets = new HashMap<>();
+
+    HostRateLimiter(double permitsPerSecond, int burst) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+    }
+
+    /**
+     * 取得一次请求许可，令牌不足时等待；Host 暂停中直接抛出 ThrottledException
+     */
+    void acquire(String host) throws IOException {
+        while (true) {
+            long waitMs;
+            synchronized (this) {
+                Bucket bucket = bucket(host);
+                long now = SystemClock.elapsedRealtime();
+                if (now < bucket.pausedUntil) {
+                    throw new QWeatherClient.ThrottledException(THROTTLED_MESSAGE);
+                }
+                bucket.tokens = Math.min(burst, bucket.tokens + (now - bucket.refilledAt) * permitsPerSecond / 1000);
+                bucket.refilledAt = now;
+                if (bucket.tokens >= 1) {
+                    bucket.tokens -= 1;
+                    return;
+                }
+                waitMs = (long) Math.ceil((1 - bucket.tokens) * 1000 / permitsPerSecond);
+            }
+            sleep(waitMs);
+        }
+    }
+
+    /**
+     * 阻塞到 Host 的暂停结束，只供后台预取在重试前调用
+     */
+    void awaitResume(String host) throws InterruptedIOException {
+        long waitMs;
+        synchronized (this) {
+            waitMs = bucket(host).pausedUntil - SystemClock.elapsedRealtime();
+        }
+        if (waitMs > 0) {
+            sleep(waitMs);
+        }
+    }
+
+    /**
+     * 服务端返回 429 后调用，暂停期间该 Host 的请求都会被拒绝
+     */
+    synchronized void pause(String host, long durationMs) {
+        Bucket bucket = bucket(host);
+        bucket.pausedUntil = Math.max(bucket.pausedUntil, SystemClock.elapsedRealtime() + durationMs);
+        bucket.tokens = 0;
+    }
+
+    private static void sleep(long waitMs) throws InterruptedIOException {
+        try {
+            Thread.sleep(waitMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("请求已取消");
+        }
+    }
+
+    private Bucket bucket(String host) {
+        Bucket bucket = buckets.get(host);
+        if (bucket == null) {
+            bucket = new Bucket();
+            bucket.tokens = burst;
+            bucket.refilledAt = SystemClock.elapsedRealtime();
+            buckets.put(host, bucket);
+        }
+        return bucket;
+    }
+}
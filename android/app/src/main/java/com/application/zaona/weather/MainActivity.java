@@ -1,19 +1,30 @@
 package com.application.zaona.weather;
 
+import android.content.Context;
+
 import io.flutter.embedding.android.FlutterActivity;
 import io.flutter.embedding.engine.FlutterEngine;
-import io.flutter.plugin.common.MethodChannel;
 
 public class MainActivity extends FlutterActivity {
-    private static final String CHANNEL = "wearable_message_channel";
+    @Override
+    public FlutterEngine provideFlutterEngine(Context context) {
+        // 使用 WeatherApplication 预热的引擎，进程由后台任务拉起时在此按需创建
+        return WeatherApplication.obtainEngine(context);
+    }
+
+    @Override
+    public boolean shouldDestroyEngineWithHost() {
+        // 引擎缓存在进程内，界面重建时直接复用
+        return false;
+    }
 
     @Override
     public void configureFlutterEngine(FlutterEngine flutterEngine) {
         super.configureFlutterEngine(flutterEngine);
-        
-        // 注册小米运动健康通信插件
-        WearableMessageHandler wearableHandler = new WearableMessageHandler();
-        flutterEngine.getPlugins().add(wearableHandler);
+
+        // 注册小米运动健康通信插件，预热引擎已注册时跳过
+        if (!flutterEngine.getPlugins().has(WearableMessageHandler.class)) {
+            flutterEngine.getPlugins().add(new WearableMessageHandler());
+        }
     }
 }
-
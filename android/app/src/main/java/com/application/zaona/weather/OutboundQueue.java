@@ -0,0 +1,174 @@
+package com.application.zaona.weather;
+
+import android.os.Handler;
+
+import com.xiaomi.xms.wearable.tasks.Task;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * 按设备排队发送：每台设备同一时间只有一个发送中的请求，控制消息优先于批量数据
+ *
+ * 可指定合并键，尚未发送的同键旧请求会被新请求替换，旧请求以 RESULT_SUPERSEDED 结束（不代表已送达）；批量队列有深度上限，
+ * 超出时拒绝入队，由调用方向 Dart 返回背压错误。发送失败时按 RetryPolicy 在原位置重试，
+ * 重试前重新确认设备在线。所有方法仅在主线程调用。
+ */
+final class OutboundQueue {
+    static final int PRIORITY_CONTROL = 0;
+    static final int PRIORITY_BULK = 1;
+
+    static final int RESULT_SENT = 0;
+    static final int RESULT_FAILED = 1;
+    static final int RESULT_SUPERSEDED = 2;
+
+    private static final int MAX_BULK_DEPTH = 8;
+
+    interface Sender {
+        Task<?> send();
+    }
+
+    interface Callback {
+        void onResult(int result, Object value, Exception error, int attempts);
+    }
+
+    interface NodeResolver {
+        void resolve(String nodeId, Runnable onAvailable, Runnable onUnavailable);
+    }
+
+    private static final class Entry {
+        final String coalesceKey;
+        final String errorCode;
+        final Sender sender;
+        final Callback callback;
+        int attempts;
+
+        Entry(String coalesceKey, String errorCode, Sender sender, Callback callback) {
+            this.coalesceKey = coalesceKey;
+            this.errorCode = errorCode;
+            this.sender = sender;
+            this.callback = callback;
+        }
+    }
+
+    private static final class NodeQueue {
+        final List<Entry> control = new ArrayList<>();
+        final List<Entry> bulk = new ArrayList<>();
+        boolean sending;
+    }
+
+    private final Handler handler;
+    private final Executor mainExecutor;
+    private final RetryPolicy retryPolicy;
+    private final NodeResolver nodeResolver;
+    private final Map<String, NodeQueue> queues = new HashMap<>();
+
+    OutboundQueue(Handler handler, RetryPolicy retryPolicy, NodeResolver nodeResolver) {
+        this.handler = handler;
+        this.mainExecutor = handler::post;
+        this.retryPolicy = retryPolicy;
+        this.nodeResolver = nodeResolver;
+    }
+
+    /**
+     * 加入发送队列，批量队列已满时返回 false；errorCode 为失败时对应的错误码，决定重试预算
+     */
+    boolean enqueue(
+            String nodeId,
+            int priority,
+            String coalesceKey,
+            String errorCode,
+            Sender sender,
+            Callback callback
+    ) {
+        NodeQueue queue = queues.get(nodeId);
+        if (queue == null) {
+            queue = new NodeQueue();
+            queues.put(nodeId, queue);
+        }
+
+        Entry entry = new Entry(coalesceKey, errorCode, sender, callback);
+        List<Entry> lane = priority == PRIORITY_CONTROL ? queue.control : queue.bulk;
+        Entry replaced = replace(lane, entry);
+        if (replaced != null) {
+            replaced.callback.onResult(RESULT_SUPERSEDED, null, null, replaced.attempts);
+        } else if (lane == queue.bulk && lane.size() >= MAX_BULK_DEPTH) {
+            return false;
+        } else {
+            lane.add(entry);
+        }
+        pump(nodeId, queue);
+        return true;
+    }
+
+    int getDepth(String nodeId) {
+        NodeQueue queue = queues.get(nodeId);
+        return queue == null ? 0 : queue.control.size() + queue.bulk.size();
+    }
+
+    private static Entry replace(List<Entry> lane, Entry entry) {
+        if (entry.coalesceKey == null) {
+            return null;
+        }
+        for (int i = 0; i < lane.size(); i++) {
+            if (entry.coalesceKey.equals(lane.get(i).coalesceKey)) {
+                return lane.set(i, entry);
+            }
+        }
+        return null;
+    }
+
+    private void pump(String nodeId, NodeQueue queue) {
+        if (queue.sending) {
+            return;
+        }
+        Entry next = null;
+        if (!queue.control.isEmpty()) {
+            next = queue.control.remove(0);
+        } else if (!queue.bulk.isEmpty()) {
+            next = queue.bulk.remove(0);
+        }
+        if (next == null) {
+            queues.remove(nodeId);
+            return;
+        }
+
+        queue.sending = true;
+        send(nodeId, queue, next);
+    }
+
+    private void send(String nodeId, NodeQueue queue, Entry entry) {
+        entry.attempts++;
+        Task<?> task;
+        try {
+            task = entry.sender.send();
+        } catch (RuntimeException e) {
+            onFailure(nodeId, queue, entry, e);
+            return;
+        }
+        task.addOnSuccessListener(mainExecutor, value -> complete(nodeId, queue, entry, RESULT_SENT, value, null))
+                .addOnFailureListener(mainExecutor, e -> onFailure(nodeId, queue, entry, e));
+    }
+
+    private void onFailure(String nodeId, NodeQueue queue, Entry entry, Exception error) {
+        if (!retryPolicy.shouldRetry(entry.errorCode, entry.attempts)) {
+            complete(nodeId, queue, entry, RESULT_FAILED, null, error);
+            return;
+        }
+        // 重试期间保持队首位置，保证同一设备的发送顺序
+        handler.postDelayed(() -> nodeResolver.resolve(
+                nodeId,
+                () -> send(nodeId, queue, entry),
+                () -> complete(nodeId, queue, entry, RESULT_FAILED, null, error)
+        ), retryPolicy.backoffDelay(entry.attempts));
+    }
+
+    private void complete(String nodeId, NodeQueue queue, Entry entry, int result, Object value, Exception error) {
+        queue.sending = false;
+        entry.callback.onResult(result, value, error, entry.attempts);
+        pump(nodeId, queue);
+    }
+}
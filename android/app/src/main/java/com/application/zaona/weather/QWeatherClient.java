@@ -0,0 +1,538 @@
+package com.application.zaona.weather;
+
+import android.content.Context;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 原生层的和风天气请求，供 Dart 端和不启动 Flutter 引擎的后台同步共用
+ *
+ * 请求头与错误文案与 Dart 端 WeatherService 一致。响应体读完后不断开连接，由系统连接池复用；
+ * 显式声明 gzip 并自行解压；服务端返回 ETag / Last-Modified 时缓存响应体，再次请求时发送条件请求，
+ * 304 直接返回缓存内容。预报另有 ForecastCache 磁盘缓存：新鲜期内不发请求，过期条目可先返回再后台更新。
+ * 所有请求经过按 Host 的限流器，收到 429 后该 Host 暂停；多位置预取在独立的有界线程池中并行执行。
+ * 同步方法会阻塞，必须在后台线程执行。
+ */
+final class QWeatherClient {
+    private static final int CONNECT_TIMEOUT_MS = 10_000;
+    private static final int READ_TIMEOUT_MS = 15_000;
+    private static final int MAX_VALIDATED_ENTRIES = 32;
+    private static final int MAX_ERROR_BODY_CHARS = 200;
+    // 和风天气按 Key 限制请求频率，所有请求共用；收到 429 且没有 Retry-After 时的暂停时长与上限
+    private static final double REQUESTS_PER_SECOND = 5;
+    private static final int REQUEST_BURST = 5;
+    private static final long DEFAULT_THROTTLE_MS = 10_000;
+    private static final long MAX_THROTTLE_MS = 60_000;
+    // 预取并发上限与单个位置的尝试次数（被限流后等待暂停结束再试）
+    private static final int PREFETCH_PARALLELISM = 3;
+    private static final int PREFETCH_MAX_ATTEMPTS = 2;
+    private static final List<String> FORECAST_DAYS = Arrays.asList("3d", "7d", "10d", "15d", "30d");
+
+    private static QWeatherClient instance;
+
+    private static final class CachedBody {
+        final String etag;
+        final String lastModified;
+        final String body;
+
+        CachedBody(String etag, String lastModified, String body) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.body = body;
+        }
+    }
+
+    // 按 URL 缓存带校验信息的响应体，按访问顺序淘汰
+    private final Map<String, CachedBody> validated = new LinkedHashMap<String, CachedBody>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedBody> eldest) {
+            return size() > MAX_VALIDATED_ENTRIES;
+        }
+    };
+
+    private final HostRateLimiter rateLimiter = new HostRateLimiter(REQUESTS_PER_SECOND, REQUEST_BURST);
+    private final ForecastCache forecastCache;
+    private final GeoCache geoCache;
+    // 正在后台重新验证的缓存键，避免同一预报重复请求
+    private final Set<String> revalidating = new HashSet<>();
+
+    // 并行请求会在池内等待子请求，使用不限数量的线程池避免互相等待
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "qweather-http");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ExecutorService prefetchExecutor = Executors.newFixedThreadPool(PREFETCH_PARALLELISM, runnable -> {
+        Thread thread = new Thread(runnable, "qweather-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 服务端返回 429，或对应 Host 仍在限流器的暂停期内
+     */
+    static final class ThrottledException extends IOException {
+        ThrottledException(String message) {
+            super(message);
+        }
+    }
+
+    static final class Forecast {
+        final String body;
+        final long fetchedAt;
+        final boolean stale;
+
+        Forecast(ForecastCache.Entry entry, boolean stale) {
+            this.body = entry.body;
+            this.fetchedAt = entry.fetchedAt;
+            this.stale = stale;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("body", body);
+            map.put("fetchedAt", fetchedAt);
+            map.put("stale", stale);
+            return map;
+        }
+    }
+
+    static final class Prefetched {
+        final QWeatherConfig.SavedLocation location;
+        final Forecast forecast;
+        final String error;
+
+        Prefetched(QWeatherConfig.SavedLocation location, Forecast forecast, String error) {
+            this.location = location;
+            this.forecast = forecast;
+            this.error = error;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("id", location.id);
+            map.put("name", location.name);
+            map.put("success", forecast != null);
+            map.put("message", error);
+            return map;
+        }
+    }
+
+    static synchronized QWeatherClient getInstance(Context context) {
+        if (instance == null) {
+            instance = new QWeatherClient(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private QWeatherClient(Context context) {
+        forecastCache = new ForecastCache(context.getCacheDir());
+        geoCache = new GeoCache(context);
+    }
+
+    /**
+     * 在网络线程池执行请求，供通道调用使用
+     */
+    void execute(Runnable request) {
+        executor.execute(request);
+    }
+
+    /**
+     * 获取预报，缓存新鲜时不发请求
+     *
+     * allowStale 为 true 时过期但未超过 MAX_STALE_MS 的缓存立即返回（stale 为 true）并在后台更新；
+     * 否则等待网络结果，请求失败时抛出异常。返回码不是 200 的响应原样返回且不缓存。
+     */
+    Forecast getForecast(QWeatherConfig config, String location, String days, boolean allowStale) throws IOException {
+        String key = ForecastCache.key(config.apiHost, days, location);
+        long now = System.currentTimeMillis();
+        ForecastCache.Entry cached = forecastCache.get(key);
+        if (cached != null && cached.isFresh(now)) {
+            return new Forecast(cached, false);
+        }
+        if (cached != null && allowStale && cached.isUsable(now)) {
+            revalidate(config, key, location, days);
+            return new Forecast(cached, true);
+        }
+
+        // 调用方没有接受过期数据时，请求失败直接抛出，不用旧缓存冒充最新结果
+        String body = requestForecast(config, location, days);
+        ForecastCache.Entry entry = forecastCache.put(key, body, System.currentTimeMillis());
+        return new Forecast(entry != null ? entry : new ForecastCache.Entry(body, now, now), false);
+    }
+
+    /**
+     * 只读缓存，不发请求；条目已过新鲜期时在后台更新，没有可用缓存时返回 null
+     */
+    Forecast getCachedForecast(QWeatherConfig config, String location, String days) {
+        String key = ForecastCache.key(config.apiHost, days, location);
+        long now = System.currentTimeMillis();
+        ForecastCache.Entry cached = forecastCache.get(key);
+        if (cached == null || !cached.isUsable(now)) {
+            return null;
+        }
+        boolean fresh = cached.isFresh(now);
+        if (!fresh) {
+            revalidate(config, key, location, days);
+        }
+        return new Forecast(cached, !fresh);
+    }
+
+    /**
+     * 并行预取多个位置的预报写入缓存，并发数受 PREFETCH_PARALLELISM 限制，请求速率受限流器控制；
+     * 缓存仍新鲜的位置不发请求。阻塞到全部完成，按输入顺序返回结果
+     */
+    List<Prefetched> prefetch(QWeatherConfig config, List<QWeatherConfig.SavedLocation> locations) {
+        List<Future<Prefetched>> futures = new ArrayList<>(locations.size());
+        for (QWeatherConfig.SavedLocation location : locations) {
+            futures.add(prefetchExecutor.submit(() -> prefetchOne(config, location)));
+        }
+        List<Prefetched> results = new ArrayList<>(locations.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                results.add(futures.get(i).get());
+            } catch (ExecutionException e) {
+                results.add(new Prefetched(locations.get(i), null, String.valueOf(e.getCause())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return results;
+    }
+
+    private Prefetched prefetchOne(QWeatherConfig config, QWeatherConfig.SavedLocation location) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return new Prefetched(location, getForecast(config, location.id, config.forecastDays, false), null);
+            } catch (ThrottledException e) {
+                if (attempt >= PREFETCH_MAX_ATTEMPTS) {
+                    return new Prefetched(location, null, e.getMessage());
+                }
+                // 交互请求在暂停期间直接失败，预取在后台，可以等到暂停结束再试
+                try {
+                    rateLimiter.awaitResume(config.apiHost);
+                } catch (InterruptedIOException interrupted) {
+                    return new Prefetched(location, null, interrupted.getMessage());
+                }
+            } catch (IOException e) {
+                return new Prefetched(location, null, e.getMessage());
+            }
+        }
+    }
+
+    private void revalidate(QWeatherConfig config, String key, String location, String days) {
+        synchronized (revalidating) {
+            if (!revalidating.add(key)) {
+                return;
+            }
+        }
+        executor.execute(() -> {
+            try {
+                forecastCache.put(key, requestForecast(config, location, days), System.currentTimeMillis());
+            } catch (IOException e) {
+                // 保留旧缓存，下次请求时再试
+            } finally {
+                synchronized (revalidating) {
+                    revalidating.remove(key);
+                }
+            }
+        });
+    }
+
+    private String requestForecast(QWeatherConfig config, String location, String days) throws IOException {
+        return get(config, "/v7/weather/" + days, location, "该地区天气信息不可用");
+    }
+
+    /**
+     * 城市搜索或经纬度反查的原始 JSON
+     */
+    String lookupCity(QWeatherConfig config, String location) throws IOException {
+        return get(config, "/geo/v2/city/lookup", location, null);
+    }
+
+    /**
+     * 经纬度反查城市，先查量化网格缓存，未命中才请求 geo 接口；返回与 geo 接口相同格式的 JSON
+     */
+    String reverseGeocode(QWeatherConfig config, String coordinates) throws IOException {
+        String cell = GeoCache.cellOf(coordinates);
+        if (cell == null) {
+            return lookupCity(config, coordinates);
+        }
+        String cached = geoCache.get(cell);
+        if (cached != null) {
+            try {
+                return GeoCache.toLookupBody(cached);
+            } catch (JSONException e) {
+                // 缓存内容异常时重新请求
+            }
+        }
+
+        String body = lookupCity(config, coordinates);
+        String city = GeoCache.firstCity(body);
+        if (city != null) {
+            geoCache.put(cell, city);
+        }
+        return body;
+    }
+
+    /**
+     * 按经纬度并行获取预报和所在城市，城市反查失败不影响预报结果，对应值为 null
+     */
+    Map<String, Object> fetchForecastWithCity(QWeatherConfig config, String coordinates, String days) throws IOException {
+        Future<String> city = executor.submit(() -> reverseGeocode(config, coordinates));
+        Forecast forecast;
+        try {
+            forecast = getForecast(config, coordinates, days, false);
+        } catch (IOException | RuntimeException e) {
+            city.cancel(true);
+            throw e;
+        }
+
+        // 反查与预报在不同线程执行，等待时间不超过一次完整请求，不会因为子请求排队而无限阻塞
+        String cityBody = null;
+        try {
+            cityBody = city.get(CONNECT_TIMEOUT_MS + READ_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // 反查失败时由调用方使用默认名称
+        } catch (TimeoutException e) {
+            city.cancel(true);
+        } catch (InterruptedException e) {
+            city.cancel(true);
+            Thread.currentThread().interrupt();
+        }
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("weather", forecast.body);
+        data.put("city", cityBody);
+        return data;
+    }
+
+    /**
+     * 获取预报并返回发送到手表的 UTF-8 JSON：原始数据附加 location 字段，只保留手表使用的字段
+     */
+    byte[] fetchForecastPayload(QWeatherConfig config) throws IOException {
+        try {
+            JSONObject data = new JSONObject(getForecast(config, config.locationId, config.forecastDays, false).body);
+            String code = data.optString("code");
+            if (!"200".equals(code)) {
+                throw new IOException("获取天气数据失败。返回码: " + code);
+            }
+            data.put("location", config.locationName);
+            return new WeatherJsonWriter().write(data);
+        } catch (JSONException e) {
+            throw new IOException("天气数据解析失败", e);
+        }
+    }
+
+    /**
+     * 手表拉取时使用：按请求的天数和位置获取预报，过期缓存先返回并在后台更新；
+     * 返回编码器使用的 Map，附加城市名称。days、location 为空时使用应用中的设置
+     */
+    Map<String, Object> fetchPullPayload(QWeatherConfig config, String days, String location) throws IOException {
+        if (!config.isUsable()) {
+            throw new IOException("未配置 API Key 或位置");
+        }
+        String forecastDays = FORECAST_DAYS.contains(days) ? days : config.forecastDays;
+        boolean custom = location != null && !location.isEmpty() && !location.equals(config.locationId);
+        Forecast forecast = getForecast(config, custom ? location : config.locationId, forecastDays, true);
+        return toPayloadMap(forecast.body, custom ? cityName(config, location) : config.locationName);
+    }
+
+    /**
+     * 预报原始 JSON 转为编码器使用的 Map，附加城市名称
+     */
+    static Map<String, Object> toPayloadMap(String body, String locationName) throws IOException {
+        try {
+            JSONObject json = new JSONObject(body);
+            String code = json.optString("code");
+            if (!"200".equals(code)) {
+                throw new IOException("获取天气数据失败。返回码: " + code);
+            }
+            Map<String, Object> data = toMap(json);
+            data.put("location", locationName);
+            return data;
+        } catch (JSONException e) {
+            throw new IOException("天气数据解析失败", e);
+        }
+    }
+
+    /**
+     * 手表指定的位置只有 ID 或经纬度，查询城市名称，失败时直接使用位置本身
+     */
+    private String cityName(QWeatherConfig config, String location) {
+        try {
+            String city = GeoCache.firstCity(reverseGeocode(config, location));
+            if (city != null) {
+                return new JSONObject(city).optString("name", location);
+            }
+        } catch (IOException | JSONException e) {
+            // 使用位置本身
+        }
+        return location;
+    }
+
+    private static Map<String, Object> toMap(JSONObject json) throws JSONException {
+        Map<String, Object> map = new HashMap<>();
+        Iterator<String> keys = json.keys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            map.put(key, toValue(json.get(key)));
+        }
+        return map;
+    }
+
+    private static Object toValue(Object value) throws JSONException {
+        if (value instanceof JSONObject) {
+            return toMap((JSONObject) value);
+        }
+        if (value instanceof JSONArray) {
+            JSONArray array = (JSONArray) value;
+            List<Object> list = new ArrayList<>(array.length());
+            for (int i = 0; i < array.length(); i++) {
+                list.add(toValue(array.get(i)));
+            }
+            return list;
+        }
+        return value == JSONObject.NULL ? null : value;
+    }
+
+    private String get(QWeatherConfig config, String path, String location, String notFoundMessage) throws IOException {
+        String url = "https://" + config.apiHost + path + "?location=" + URLEncoder.encode(location, "UTF-8");
+        CachedBody cached;
+        synchronized (validated) {
+            cached = validated.get(url);
+        }
+
+        rateLimiter.acquire(config.apiHost);
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+        connection.setReadTimeout(READ_TIMEOUT_MS);
+        connection.setRequestProperty("X-QW-Api-Key", config.apiKey);
+        connection.setRequestProperty("Content-Type", "application/json");
+        connection.setRequestProperty("X-Android-Package-Name", config.packageName);
+        connection.setRequestProperty("X-Android-Cert", config.certSha1);
+        connection.setRequestProperty("Accept-Encoding", "gzip");
+        if (cached != null) {
+            if (cached.etag != null) {
+                connection.setRequestProperty("If-None-Match", cached.etag);
+            }
+            if (cached.lastModified != null) {
+                connection.setRequestProperty("If-Modified-Since", cached.lastModified);
+            }
+        }
+
+        try {
+            int status = connection.getResponseCode();
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+                drain(connection.getInputStream());
+                return cached.body;
+            }
+            if (status != HttpURLConnection.HTTP_OK) {
+                String body = readBody(connection, connection.getErrorStream());
+                if (status == 401) {
+                    throw new IOException("API密钥无效或已过期");
+                } else if (status == 429) {
+                    rateLimiter.pause(config.apiHost, retryAfterMs(connection));
+                    throw new ThrottledException(HostRateLimiter.THROTTLED_MESSAGE);
+                } else if (status == 404 && notFoundMessage != null) {
+                    throw new IOException(notFoundMessage);
+                }
+                if (body.length() > MAX_ERROR_BODY_CHARS) {
+                    body = body.substring(0, MAX_ERROR_BODY_CHARS);
+                }
+                throw new IOException("请求失败，状态码: " + status + "，响应: " + body);
+            }
+
+            String body = readBody(connection, connection.getInputStream());
+            String etag = connection.getHeaderField("ETag");
+            String lastModified = connection.getHeaderField("Last-Modified");
+            if (etag != null || lastModified != null) {
+                synchronized (validated) {
+                    validated.put(url, new CachedBody(etag, lastModified, body));
+                }
+            }
+            return body;
+        } catch (IOException e) {
+            // 出错的连接不再放回连接池
+            connection.disconnect();
+            throw e;
+        }
+    }
+
+    /**
+     * Retry-After 只处理秒数形式，缺省或为日期时使用默认暂停时长
+     */
+    private static long retryAfterMs(HttpURLConnection connection) {
+        String retryAfter = connection.getHeaderField("Retry-After");
+        if (retryAfter != null) {
+            try {
+                return Math.min(MAX_THROTTLE_MS, Math.max(0, Long.parseLong(retryAfter.trim()) * 1000));
+            } catch (NumberFormatException e) {
+                // 日期格式按默认处理
+            }
+        }
+        return DEFAULT_THROTTLE_MS;
+    }
+
+    private static String readBody(HttpURLConnection connection, InputStream input) throws IOException {
+        if (input == null) {
+            return "";
+        }
+        InputStream stream = "gzip".equalsIgnoreCase(connection.getContentEncoding())
+                ? new GZIPInputStream(input)
+                : input;
+        try (InputStream in = stream) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * 读完并关闭响应流，连接才能被复用
+     */
+    private static void drain(InputStream input) throws IOException {
+        if (input == null) {
+            return;
+        }
+        try (InputStream in = input) {
+            byte[] buffer = new byte[1024];
+            while (in.read(buffer) != -1) {
+                // 丢弃
+            }
+        }
+    }
+}
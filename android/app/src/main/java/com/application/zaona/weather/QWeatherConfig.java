@@ -0,0 +1,185 @@
+package com.application.zaona.weather;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.text.TextUtils;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 原生层读取和风天气配置，与 Dart 端 WeatherService / SettingsService 保持一致
+ *
+ * 默认配置来自打包进 flutter_assets 的 .env，用户设置和已保存位置读取
+ * shared_preferences 插件写入的 FlutterSharedPreferences（键带 "flutter." 前缀）。
+ */
+final class QWeatherConfig {
+    private static final String FLUTTER_PREFS_NAME = "FlutterSharedPreferences";
+    private static final String FLUTTER_PREFIX = "flutter.";
+    private static final String ENV_ASSET = "flutter_assets/.env";
+    private static final String DEFAULT_HOST = "devapi.qweather.com";
+    private static final String DEFAULT_DAYS = "7d";
+    private static final String[] RECENT_KEYS = {"weather_recent_locations", "weather_recent_searches"};
+
+    // .env 随安装包打包，进程内只读取一次
+    private static Map<String, String> cachedEnv;
+
+    final String apiKey;
+    final String apiHost;
+    final String packageName;
+    final String certSha1;
+    final String locationId;
+    final String locationName;
+    final String forecastDays;
+    final boolean compatibilityMode;
+
+    static final class SavedLocation {
+        final String id;
+        final String name;
+
+        SavedLocation(String id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    private QWeatherConfig(
+            String apiKey,
+            String apiHost,
+            String packageName,
+            String certSha1,
+            String locationId,
+            String locationName,
+            String forecastDays,
+            boolean compatibilityMode
+    ) {
+        this.apiKey = apiKey;
+        this.apiHost = apiHost;
+        this.packageName = packageName;
+        this.certSha1 = certSha1;
+        this.locationId = locationId;
+        this.locationName = locationName;
+        this.forecastDays = forecastDays;
+        this.compatibilityMode = compatibilityMode;
+    }
+
+    static QWeatherConfig load(Context context) {
+        Map<String, String> env = readEnv(context);
+        SharedPreferences prefs = context.getSharedPreferences(FLUTTER_PREFS_NAME, Context.MODE_PRIVATE);
+
+        String apiKey = env.get("QWEATHER_API_KEY");
+        String apiHost = env.get("QWEATHER_API_HOST");
+        if (prefs.getBoolean(FLUTTER_PREFIX + "use_custom_api", false)) {
+            String customKey = prefs.getString(FLUTTER_PREFIX + "custom_api_key", null);
+            String customHost = prefs.getString(FLUTTER_PREFIX + "custom_api_host", null);
+            if (!TextUtils.isEmpty(customKey)) {
+                apiKey = customKey;
+            }
+            if (!TextUtils.isEmpty(customHost)) {
+                apiHost = customHost;
+            }
+        }
+
+        String locationId = null;
+        String locationName = null;
+        String savedLocation = prefs.getString(FLUTTER_PREFIX + "weather_saved_location", null);
+        if (savedLocation != null) {
+            try {
+                JSONObject location = new JSONObject(savedLocation);
+                locationId = location.optString("id", null);
+                locationName = location.optString("name", "");
+            } catch (JSONException e) {
+                locationId = null;
+            }
+        }
+
+        return new QWeatherConfig(
+                apiKey != null ? apiKey : "",
+                TextUtils.isEmpty(apiHost) ? DEFAULT_HOST : apiHost,
+                nonNull(env.get("ANDROID_PACKAGE_NAME")),
+                nonNull(env.get("ANDROID_CERT_SHA1")),
+                locationId,
+                nonNull(locationName),
+                prefs.getString(FLUTTER_PREFIX + "weather_saved_forecast_days", DEFAULT_DAYS),
+                prefs.getBoolean(FLUTTER_PREFIX + "compatibility_mode", true)
+        );
+    }
+
+    boolean isUsable() {
+        return !TextUtils.isEmpty(apiKey) && !TextUtils.isEmpty(locationId);
+    }
+
+    /**
+     * 当前位置在前，之后依次是最近定位和搜索历史中的城市，按 ID 去重，最多 limit 个
+     */
+    List<SavedLocation> loadRecentLocations(Context context, int limit) {
+        Map<String, SavedLocation> locations = new LinkedHashMap<>();
+        if (!TextUtils.isEmpty(locationId)) {
+            locations.put(locationId, new SavedLocation(locationId, locationName));
+        }
+        SharedPreferences prefs = context.getSharedPreferences(FLUTTER_PREFS_NAME, Context.MODE_PRIVATE);
+        for (String key : RECENT_KEYS) {
+            String saved = prefs.getString(FLUTTER_PREFIX + key, null);
+            if (saved == null) {
+                continue;
+            }
+            try {
+                JSONArray list = new JSONArray(saved);
+                for (int i = 0; i < list.length() && locations.size() < limit; i++) {
+                    JSONObject location = list.getJSONObject(i);
+                    String id = location.optString("id", "");
+                    if (!id.isEmpty() && !locations.containsKey(id)) {
+                        locations.put(id, new SavedLocation(id, location.optString("name", "")));
+                    }
+                }
+            } catch (JSONException e) {
+                // 历史记录损坏时跳过
+            }
+        }
+        return new ArrayList<>(locations.values()).subList(0, Math.min(limit, locations.size()));
+    }
+
+    private static synchronized Map<String, String> readEnv(Context context) {
+        if (cachedEnv != null) {
+            return cachedEnv;
+        }
+        Map<String, String> env = new HashMap<>();
+        try (InputStream input = context.getAssets().open(ENV_ASSET);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                int separator = line.indexOf('=');
+                if (line.isEmpty() || line.startsWith("#") || separator <= 0) {
+                    continue;
+                }
+                String value = line.substring(separator + 1).trim();
+                if (value.length() >= 2 && (value.startsWith("\"") && value.endsWith("\"")
+                        || value.startsWith("'") && value.endsWith("'"))) {
+                    value = value.substring(1, value.length() - 1);
+                }
+                env.put(line.substring(0, separator).trim(), value);
+            }
+        } catch (IOException e) {
+            // 未打包 .env 时只依赖自定义配置
+        }
+        cachedEnv = env;
+        return env;
+    }
+
+    private static String nonNull(String value) {
+        return value != null ? value : "";
+    }
+}
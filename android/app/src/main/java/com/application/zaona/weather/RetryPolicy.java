@@ -0,0 +1,80 @@
+package com.application.zaona.weather;
+
+import android.os.Handler;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 原生层自动重试：按错误码的 retryable 标记和每类操作的次数预算，以带抖动的指数退避重试
+ *
+ * 只有最终结果返回给 Dart，发生过重试时在响应中附加 attempts。所有方法仅在主线程调用。
+ */
+final class RetryPolicy {
+    private static final long BASE_DELAY_MS = 100;
+    private static final long MAX_DELAY_MS = 2000;
+
+    // 每类错误允许的最多尝试次数（含首次）
+    private static final Map<String, Integer> ATTEMPT_BUDGETS = new HashMap<>();
+
+    static {
+        ATTEMPT_BUDGETS.put(WearableErrorManager.CODE_MESSAGE_ERROR, 3);
+        ATTEMPT_BUDGETS.put(WearableErrorManager.CODE_CONNECTION_ERROR, 3);
+        ATTEMPT_BUDGETS.put(WearableErrorManager.CODE_NOTIFY_ERROR, 2);
+    }
+
+    interface Attempt {
+        void run(WearableSdkManager.ResponseCallback onDone);
+    }
+
+    private final Handler handler;
+    private final Random random = new Random();
+
+    RetryPolicy(Handler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * 执行操作，失败且可重试时退避后再次执行
+     */
+    void execute(Attempt attempt, WearableSdkManager.ResponseCallback onDone) {
+        runAttempt(attempt, 1, onDone);
+    }
+
+    private void runAttempt(Attempt attempt, int attempts, WearableSdkManager.ResponseCallback onDone) {
+        attempt.run(response -> {
+            Object code = response.get("code");
+            if (Boolean.TRUE.equals(response.get("success")) || !shouldRetry((String) code, attempts)) {
+                onDone.onResponse(withStats(response, attempts));
+                return;
+            }
+            handler.postDelayed(() -> runAttempt(attempt, attempts + 1, onDone), backoffDelay(attempts));
+        });
+    }
+
+    boolean shouldRetry(String code, int attempts) {
+        Integer budget = code != null ? ATTEMPT_BUDGETS.get(code) : null;
+        return budget != null && attempts < budget && WearableErrorManager.getErrorInfo(code).retryable;
+    }
+
+    /**
+     * 第 n 次失败后的等待时间：指数增长并取上限，在 [一半, 全部] 之间随机抖动
+     */
+    long backoffDelay(int attempts) {
+        long delay = Math.min(MAX_DELAY_MS, BASE_DELAY_MS << Math.min(attempts - 1, 10));
+        return delay / 2 + (long) (random.nextDouble() * (delay / 2));
+    }
+
+    /**
+     * 发生过重试时附加尝试次数，未重试时原样返回以复用缓存的响应
+     */
+    static Map<String, Object> withStats(Map<String, Object> response, int attempts) {
+        if (attempts <= 1) {
+            return response;
+        }
+        Map<String, Object> copy = new HashMap<>(response);
+        copy.put("attempts", attempts);
+        return copy;
+    }
+}
@@ -0,0 +1,40 @@
+package com.application.zaona.weather;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 合并相同的并发请求：同一键在执行期间到达的请求共享一次 SDK 调用，结果分发给所有等待方
+ *
+ * 仅在主线程使用，响应 Map 会被多个调用方共享，不得修改。
+ */
+final class SingleFlight {
+    interface Call {
+        void run(WearableSdkManager.ResponseCallback onDone);
+    }
+
+    private final Map<String, List<WearableSdkManager.ResponseCallback>> inFlight = new HashMap<>();
+
+    void run(String key, WearableSdkManager.ResponseCallback callback, Call call) {
+        List<WearableSdkManager.ResponseCallback> waiters = inFlight.get(key);
+        if (waiters != null) {
+            waiters.add(callback);
+            return;
+        }
+        waiters = new ArrayList<>();
+        waiters.add(callback);
+        inFlight.put(key, waiters);
+
+        call.run(response -> {
+            List<WearableSdkManager.ResponseCallback> done = inFlight.remove(key);
+            if (done == null) {
+                return;
+            }
+            for (WearableSdkManager.ResponseCallback waiter : done) {
+                waiter.onResponse(response);
+            }
+        });
+    }
+}
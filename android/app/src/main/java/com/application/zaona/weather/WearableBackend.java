@@ -0,0 +1,60 @@
+package com.application.zaona.weather;
+
+import com.xiaomi.xms.wearable.Status;
+import com.xiaomi.xms.wearable.auth.Permission;
+import com.xiaomi.xms.wearable.message.OnMessageReceivedListener;
+import com.xiaomi.xms.wearable.node.Node;
+import com.xiaomi.xms.wearable.service.OnServiceConnectionListener;
+import com.xiaomi.xms.wearable.tasks.Task;
+
+import java.util.List;
+
+/**
+ * 穿戴 SDK 的接口层：WearableSdkManager 只依赖这些接口，不直接调用 Wearable 静态方法
+ *
+ * 真机使用 XmsWearableBackend，单元测试使用 test 源码集中的 FakeWearableBackend。
+ * 各 getter 在后台初始化线程调用，可能较慢。
+ */
+interface WearableBackend {
+    interface NodeClient {
+        Task<List<Node>> getConnectedNodes();
+
+        Task<Boolean> isWearAppInstalled(String nodeId);
+
+        Task<Void> launchWearApp(String nodeId, String path);
+    }
+
+    interface MessageClient {
+        Task<Void> sendMessage(String nodeId, byte[] data);
+
+        Task<Void> addListener(String nodeId, OnMessageReceivedListener listener);
+
+        Task<Void> removeListener(String nodeId);
+    }
+
+    interface AuthClient {
+        Task<boolean[]> checkPermissions(String nodeId, Permission[] permissions);
+
+        Task<Permission[]> requestPermission(String nodeId, Permission... permissions);
+    }
+
+    interface NotifyClient {
+        Task<Status> sendNotify(String nodeId, String title, String message);
+    }
+
+    interface ServiceClient {
+        void registerServiceConnectionListener(OnServiceConnectionListener listener);
+
+        void unregisterServiceConnectionListener(OnServiceConnectionListener listener);
+    }
+
+    NodeClient getNodeClient();
+
+    MessageClient getMessageClient();
+
+    AuthClient getAuthClient();
+
+    NotifyClient getNotifyClient();
+
+    ServiceClient getServiceClient();
+}
@@ -10,6 +10,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 统一管理穿戴设备相关的错误消息、提示和元数据
@@ -33,6 +34,13 @@ public class WearableErrorManager {
     public static final String CODE_CHECK_FAILED = "CHECK_FAILED";
     public static final String CODE_LAUNCH_FAILED = "LAUNCH_FAILED";
     public static final String CODE_INVALID_PARAMS = "INVALID_PARAMS";
+    public static final String CODE_HANDSHAKE_TIMEOUT = "HANDSHAKE_TIMEOUT";
+    public static final String CODE_SYNC_IN_PROGRESS = "SYNC_IN_PROGRESS";
+    public static final String CODE_TRANSFER_FAILED = "TRANSFER_FAILED";
+    public static final String CODE_QUEUE_FULL = "QUEUE_FULL";
+    public static final String CODE_SUPERSEDED = "SUPERSEDED";
+    public static final String CODE_WEATHER_REQUEST_FAILED = "WEATHER_REQUEST_FAILED";
+    public static final String CODE_SCHEDULE_FAILED = "SCHEDULE_FAILED";
     
     /**
      * 错误信息定义
@@ -60,6 +68,21 @@ public class WearableErrorManager {
     }
     
     private static final Map<String, ErrorInfo> ERROR_MAP = new HashMap<>();
+    private static final Map<String, ErrorInfo> UNKNOWN_ERRORS = new ConcurrentHashMap<>();
+    
+    // 预先构建的不可变响应，避免高频路径上的重复分配
+    private static final Map<String, Map<String, Object>> ERROR_RESPONSES = new ConcurrentHashMap<>();
+    private static final Map<String, CachedResponse> SUCCESS_RESPONSES = new ConcurrentHashMap<>();
+    
+    private static final class CachedResponse {
+        final Object data;
+        final Map<String, Object> response;
+        
+        CachedResponse(Object data, Map<String, Object> response) {
+            this.data = data;
+            this.response = response;
+        }
+    }
     
     static {
         // SDK 初始化错误
@@ -178,6 +201,64 @@ public class WearableErrorManager {
             "确认穿戴端简明天气快应用为最新版本"
         ));
         
+        // 握手同步错误
+        ERROR_MAP.put(CODE_HANDSHAKE_TIMEOUT, new ErrorInfo(
+            CODE_HANDSHAKE_TIMEOUT,
+            "手表应用未响应",
+            true,
+            "确认穿戴端简明天气快应用可以正常打开",
+            "保持手表亮屏后重试"
+        ));
+        
+        ERROR_MAP.put(CODE_SYNC_IN_PROGRESS, new ErrorInfo(
+            CODE_SYNC_IN_PROGRESS,
+            "同步正在进行中",
+            true,
+            "请等待当前同步完成后再试"
+        ));
+        
+        // 分片传输错误
+        ERROR_MAP.put(CODE_TRANSFER_FAILED, new ErrorInfo(
+            CODE_TRANSFER_FAILED,
+            "分片传输失败",
+            true,
+            "确认手表与手机距离较近且连接稳定",
+            "确认穿戴端简明天气快应用保持运行"
+        ));
+        
+        // 发送队列已满
+        ERROR_MAP.put(CODE_QUEUE_FULL, new ErrorInfo(
+            CODE_QUEUE_FULL,
+            "发送队列已满",
+            true,
+            "待发送的数据过多，请稍后重试"
+        ));
+        
+        // 排队中的数据被同类新数据替换，本次数据未发送，结果以新数据的调用为准
+        ERROR_MAP.put(CODE_SUPERSEDED, new ErrorInfo(
+            CODE_SUPERSEDED,
+            "已由更新的数据替代",
+            false
+        ));
+        
+        // 天气请求错误
+        ERROR_MAP.put(CODE_WEATHER_REQUEST_FAILED, new ErrorInfo(
+            CODE_WEATHER_REQUEST_FAILED,
+            "天气数据请求失败",
+            true,
+            "检查网络连接后重试",
+            "确认 API Key 与 API Host 配置正确"
+        ));
+        
+        // 后台同步调度失败
+        ERROR_MAP.put(CODE_SCHEDULE_FAILED, new ErrorInfo(
+            CODE_SCHEDULE_FAILED,
+            "后台同步开启失败",
+            true,
+            "在系统设置中允许简明天气后台运行",
+            "关闭对简明天气的电池优化或省电限制"
+        ));
+        
         // 参数错误
         ERROR_MAP.put(CODE_INVALID_PARAMS, new ErrorInfo(
             CODE_INVALID_PARAMS,
@@ -190,8 +271,13 @@ public class WearableErrorManager {
      * 获取错误信息
      */
     public static ErrorInfo getErrorInfo(String code) {
-        return ERROR_MAP.getOrDefault(code, new ErrorInfo(
-            code,
+        ErrorInfo errorInfo = ERROR_MAP.get(code);
+        if (errorInfo != null) {
+            return errorInfo;
+        }
+        // 未知错误码只在首次出现时创建
+        return UNKNOWN_ERRORS.computeIfAbsent(code, c -> new ErrorInfo(
+            c,
             "未知错误",
             Collections.singletonList("请稍后重试"),
             true
@@ -200,9 +286,45 @@ public class WearableErrorManager {
     
     /**
      * 创建成功响应
+     *
+     * 不带 data 的响应按消息缓存复用；带 data 的响应每次新建且不进入缓存，避免静态表持有大对象。
+     * 调用方不得修改返回的 Map
      */
     public static Map<String, Object> createSuccess(String message, Object data) {
-        return createResponse(true, CODE_OK, message, data, Collections.emptyList(), null, false);
+        if (data != null) {
+            return Collections.unmodifiableMap(
+                createResponse(true, CODE_OK, message, data, Collections.emptyList(), null, false)
+            );
+        }
+        return createSharedSuccess(message, null);
+    }
+    
+    /**
+     * 创建携带共享数据的成功响应
+     *
+     * data 必须是调用方长期复用的不可变对象（如常量或按设备缓存的 Map），同一消息且 data 为同一对象时复用响应
+     */
+    public static Map<String, Object> createSharedSuccess(String message, Object data) {
+        CachedResponse cached = SUCCESS_RESPONSES.get(message);
+        if (cached != null && cached.data == data) {
+            return cached.response;
+        }
+        Map<String, Object> response = Collections.unmodifiableMap(
+            createResponse(true, CODE_OK, message, data, Collections.emptyList(), null, false)
+        );
+        SUCCESS_RESPONSES.put(message, new CachedResponse(data, response));
+        return response;
+    }
+    
+    /**
+     * 创建返回给 Dart 的设备信息，WearableSdkManager 按设备缓存结果，适合配合 createSharedSuccess 使用
+     */
+    static Map<String, Object> createNodeData(String id, String name) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", id);
+        map.put("name", name);
+        map.put("attributes", Collections.emptyMap());
+        return Collections.unmodifiableMap(map);
     }
     
     /**
@@ -216,6 +338,16 @@ public class WearableErrorManager {
             List<String> customHints,
             Boolean customRetryable
     ) {
+        boolean plain = exception == null && data == null && TextUtils.isEmpty(customMessage)
+            && (customHints == null || customHints.isEmpty()) && customRetryable == null;
+        if (plain) {
+            // 不带异常和附加数据的错误响应按错误码缓存
+            Map<String, Object> cached = ERROR_RESPONSES.get(code);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        
         ErrorInfo errorInfo = getErrorInfo(code);
         
         String message = !TextUtils.isEmpty(customMessage) ? customMessage : errorInfo.message;
@@ -225,7 +357,12 @@ public class WearableErrorManager {
         boolean retryable = customRetryable != null ? customRetryable : errorInfo.retryable;
         String details = extractExceptionDetails(exception);
         
-        return createResponse(false, code, message, data, hints, details, retryable);
+        Map<String, Object> response = createResponse(false, code, message, data, hints, details, retryable);
+        if (plain) {
+            response = Collections.unmodifiableMap(response);
+            ERROR_RESPONSES.put(code, response);
+        }
+        return response;
     }
     
     /**
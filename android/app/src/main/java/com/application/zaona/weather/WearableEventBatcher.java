@@ -0,0 +1,101 @@
+package com.application.zaona.weather;
+
+import android.os.Handler;
+import android.util.Log;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 合并发往 Dart 的事件：同一帧内的消息打包为一次 onMessagesReceived，服务状态只保留最新一次
+ *
+ * 入队可在任意线程调用，批量发送在主线程执行。消息队列有上限，溢出时丢弃最旧的消息。
+ */
+final class WearableEventBatcher {
+    private static final String TAG = "WearableEventBatcher";
+    private static final long FRAME_MS = 16;
+    private static final int MAX_PENDING_MESSAGES = 64;
+
+    interface Sink {
+        void emit(String method, Object arguments);
+    }
+
+    private final Handler mainHandler;
+    private final Sink sink;
+    private final Runnable flushTask = this::flush;
+
+    private final Object lock = new Object();
+    private final ArrayDeque<String> messages = new ArrayDeque<>();
+    private int droppedMessages;
+    private boolean statusPending;
+    private boolean serviceConnected;
+    private long serviceStatusAt;
+    private boolean flushScheduled;
+
+    WearableEventBatcher(Handler mainHandler, Sink sink) {
+        this.mainHandler = mainHandler;
+        this.sink = sink;
+    }
+
+    void addMessage(String message) {
+        synchronized (lock) {
+            if (messages.size() >= MAX_PENDING_MESSAGES) {
+                messages.pollFirst();
+                droppedMessages++;
+            }
+            messages.addLast(message);
+            scheduleFlushLocked();
+        }
+    }
+
+    /**
+     * 记录服务状态，未发送的旧状态直接被覆盖
+     */
+    void setServiceStatus(boolean connected) {
+        synchronized (lock) {
+            statusPending = true;
+            serviceConnected = connected;
+            serviceStatusAt = System.currentTimeMillis();
+            scheduleFlushLocked();
+        }
+    }
+
+    private void scheduleFlushLocked() {
+        if (!flushScheduled) {
+            flushScheduled = true;
+            mainHandler.postDelayed(flushTask, FRAME_MS);
+        }
+    }
+
+    private void flush() {
+        List<String> batch;
+        Map<String, Object> status = null;
+        int dropped;
+        synchronized (lock) {
+            flushScheduled = false;
+            batch = new ArrayList<>(messages);
+            messages.clear();
+            dropped = droppedMessages;
+            droppedMessages = 0;
+            if (statusPending) {
+                statusPending = false;
+                status = new HashMap<>();
+                status.put("connected", serviceConnected);
+                status.put("timestamp", serviceStatusAt);
+            }
+        }
+
+        if (dropped > 0) {
+            Log.w(TAG, "消息积压，已丢弃 " + dropped + " 条旧消息");
+        }
+        if (status != null) {
+            sink.emit("onServiceStatusChanged", status);
+        }
+        if (!batch.isEmpty()) {
+            sink.emit("onMessagesReceived", batch);
+        }
+    }
+}
@@ -1,85 +1,192 @@
 package com.application.zaona.weather;
 
 import android.content.Context;
-import android.content.pm.PackageInfo;
-import android.content.pm.PackageManager;
 import android.os.Handler;
 import android.os.Looper;
+import android.os.SystemClock;
 import android.text.TextUtils;
 
 import androidx.annotation.NonNull;
 
-import com.xiaomi.xms.wearable.Status;
-import com.xiaomi.xms.wearable.Wearable;
-import com.xiaomi.xms.wearable.auth.AuthApi;
-import com.xiaomi.xms.wearable.auth.Permission;
-import com.xiaomi.xms.wearable.message.MessageApi;
-import com.xiaomi.xms.wearable.message.OnMessageReceivedListener;
-import com.xiaomi.xms.wearable.node.Node;
-import com.xiaomi.xms.wearable.node.NodeApi;
-import com.xiaomi.xms.wearable.notify.NotifyApi;
-import com.xiaomi.xms.wearable.service.OnServiceConnectionListener;
-import com.xiaomi.xms.wearable.service.ServiceApi;
-
+import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import io.flutter.embedding.engine.plugins.FlutterPlugin;
+import io.flutter.plugin.common.BasicMessageChannel;
+import io.flutter.plugin.common.BinaryCodec;
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
 import io.flutter.plugin.common.MethodChannel.MethodCallHandler;
 import io.flutter.plugin.common.MethodChannel.Result;
+import io.flutter.plugin.common.StandardMessageCodec;
 
 public class WearableMessageHandler implements FlutterPlugin, MethodCallHandler {
     private static final String CHANNEL = "wearable_message_channel";
+    private static final String PAYLOAD_CHANNEL = "wearable_payload_channel";
+    private static final int DEFAULT_PREFETCH_LIMIT = 5;
+    // 预取后打包发送的等待上限，分片传输较慢时仍返回预取结果
+    private static final long BUNDLE_PUSH_TIMEOUT_MS = 30_000;
 
     private Context applicationContext;
     private MethodChannel channel;
-    private Handler mainHandler;
+    // 批量数据走二进制通道，控制调用仍使用 MethodChannel
+    private BasicMessageChannel<ByteBuffer> payloadChannel;
     private WearableSdkManager sdkManager;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    private interface WeatherRequest {
+        Object run(QWeatherClient client, QWeatherConfig config) throws IOException;
+    }
+
+    public WearableMessageHandler() {
+    }
+
+    /**
+     * 指定 SDK 封装，可不经 Flutter 引擎直接调用 onMethodCall
+     */
+    WearableMessageHandler(WearableSdkManager sdkManager) {
+        this.sdkManager = sdkManager;
+    }
 
     @Override
     public void onAttachedToEngine(@NonNull FlutterPluginBinding binding) {
         applicationContext = binding.getApplicationContext();
         channel = new MethodChannel(binding.getBinaryMessenger(), CHANNEL);
-        mainHandler = new Handler(Looper.getMainLooper());
-        sdkManager = new WearableSdkManager(applicationContext, channel, mainHandler);
+        if (sdkManager == null) {
+            sdkManager = WearableSdkManager.getInstance(applicationContext);
+        }
+        sdkManager.attachChannel(channel);
         channel.setMethodCallHandler(this);
+
+        payloadChannel = new BasicMessageChannel<>(binding.getBinaryMessenger(), PAYLOAD_CHANNEL, BinaryCodec.INSTANCE_DIRECT);
+        payloadChannel.setMessageHandler(this::onPayloadMessage);
+    }
+
+    /**
+     * 二进制通道收到的数据原样发送到当前设备，响应以 StandardMessageCodec 编码后回传
+     */
+    private void onPayloadMessage(ByteBuffer message, BasicMessageChannel.Reply<ByteBuffer> reply) {
+        // 直接缓冲区只在本次回调内有效，先复制出消息体
+        byte[] payload = null;
+        if (message != null) {
+            payload = new byte[message.remaining()];
+            message.get(payload);
+        }
+        final byte[] bytes = payload;
+        // whenReady 可能把回调排到 SDK 初始化之后，期间引擎分离会清空字段，使用局部变量
+        WearableSdkManager manager = sdkManager;
+        manager.whenReady(() -> manager.sendPayloadBytes(bytes, response ->
+                reply.reply(StandardMessageCodec.INSTANCE.encodeMessage(response))));
     }
 
     @Override
     public void onMethodCall(@NonNull MethodCall call, @NonNull Result result) {
+        WearableSdkManager manager = sdkManager;
+        WearableMetrics metrics = manager.getMetrics();
+        if ("getMetrics".equals(call.method)) {
+            result.success(WearableErrorManager.createSuccess("获取指标成功", metrics.snapshot()));
+            return;
+        }
+        if ("resetMetrics".equals(call.method)) {
+            metrics.reset();
+            result.success(WearableErrorManager.createSuccess("指标已重置", null));
+            return;
+        }
+
+        Result timed = new TimedResult(call.method, metrics, result);
+        if (handleWeatherCall(call, timed)) {
+            return;
+        }
+        // SDK 接口在后台初始化，冷启动时的首批调用等待其就绪
+        manager.whenReady(() -> handleMethodCall(manager, call, timed));
+    }
+
+    private void handleMethodCall(WearableSdkManager manager, MethodCall call, Result result) {
         switch (call.method) {
             case "getConnectedNodes":
-                sdkManager.getConnectedNode(result);
+                manager.getConnectedNode(result);
+                break;
+            case "getAllConnectedNodes":
+                manager.getAllConnectedNodes(result);
                 break;
             case "requestPermissions":
-                sdkManager.requestPermissions(result);
+                manager.requestPermissions(result);
                 break;
             case "sendMessage":
-                sdkManager.sendMessage(call.argument("message"), result);
+                manager.sendMessage(call.argument("message"), result);
+                break;
+            case "sendWeatherPayload":
+                manager.sendWeatherPayload(
+                        call.argument("data"),
+                        call.argument("compress"),
+                        call.argument("delta"),
+                        call.argument("chunked"),
+                        call.argument("chunkSize"),
+                        result
+                );
+                break;
+            case "sendWeatherJson":
+                manager.sendWeatherJson(call.argument("data"), result);
+                break;
+            case "sendWeatherPayloadToAll":
+                manager.sendWeatherPayloadToAll(
+                        call.argument("data"),
+                        call.argument("compress"),
+                        call.argument("delta"),
+                        call.argument("chunked"),
+                        call.argument("chunkSize"),
+                        result
+                );
                 break;
             case "sendNotification":
-                sdkManager.sendNotification(call.argument("title"), call.argument("message"), result);
+                manager.sendNotification(call.argument("title"), call.argument("message"), result);
                 break;
             case "startListening":
-                sdkManager.startListening(result);
+                manager.startListening(result);
                 break;
             case "stopListening":
-                sdkManager.stopListening(result);
+                manager.stopListening(result);
                 break;
             case "checkWearableApp":
-                sdkManager.checkWearableApp(result);
+                manager.checkWearableApp(result);
                 break;
             case "checkWearApp":
-                sdkManager.checkWearApp(result);
+                manager.checkWearApp(result);
                 break;
             case "launchWearApp":
-                sdkManager.launchWearApp(call.argument("path"), result);
+                manager.launchWearApp(call.argument("path"), result);
+                break;
+            case "syncWithHandshake":
+                manager.syncWithHandshake(handshakePayload(manager, call), call.argument("timeoutMs"), result::success);
+                break;
+            case "schedulePeriodicSync":
+                if (WeatherSyncScheduler.schedule(applicationContext, call.argument("intervalMinutes"))) {
+                    result.success(WearableErrorManager.createSuccess(
+                            "后台同步已开启",
+                            WeatherSyncScheduler.buildStatus(applicationContext)
+                    ));
+                } else {
+                    result.success(WearableErrorManager.createError(
+                            WearableErrorManager.CODE_SCHEDULE_FAILED,
+                            null,
+                            null
+                    ));
+                }
+                break;
+            case "cancelPeriodicSync":
+                WeatherSyncScheduler.cancel(applicationContext);
+                result.success(WearableErrorManager.createSuccess(
+                        "后台同步已关闭",
+                        WeatherSyncScheduler.buildStatus(applicationContext)
+                ));
                 break;
             default:
                 result.notImplemented();
@@ -87,405 +194,212 @@ public class WearableMessageHandler implements FlutterPlugin, MethodCallHandler
         }
     }
 
-    @Override
-    public void onDetachedFromEngine(@NonNull FlutterPluginBinding binding) {
-        channel.setMethodCallHandler(null);
-        if (sdkManager != null) {
-            sdkManager.dispose();
-            sdkManager = null;
-        }
-    }
-
-
-    private static final class WearableSdkManager {
-        private final Context context;
-        private final MethodChannel channel;
-        private final Handler mainHandler;
-
-        private final NodeApi nodeApi;
-        private final MessageApi messageApi;
-        private final AuthApi authApi;
-        private final NotifyApi notifyApi;
-        private final ServiceApi serviceApi;
-
-        private Node currentNode;
-        private boolean listening;
-
-        private final OnMessageReceivedListener messageListener;
-
-        private final OnServiceConnectionListener serviceConnectionListener;
-
-        WearableSdkManager(Context context, MethodChannel channel, Handler handler) {
-            this.context = context.getApplicationContext();
-            this.channel = channel;
-            this.mainHandler = handler;
-            nodeApi = Wearable.getNodeApi(this.context);
-            messageApi = Wearable.getMessageApi(this.context);
-            authApi = Wearable.getAuthApi(this.context);
-            notifyApi = Wearable.getNotifyApi(this.context);
-            serviceApi = Wearable.getServiceApi(this.context);
-
-            messageListener = (nodeId, bytes) -> {
-                final String message = new String(bytes, StandardCharsets.UTF_8);
-                mainHandler.post(() -> channel.invokeMethod("onMessageReceived", message));
-            };
-
-            serviceConnectionListener = new OnServiceConnectionListener() {
-                @Override
-                public void onServiceConnected() {
-                    emitServiceStatus(true);
-                }
-
-                @Override
-                public void onServiceDisconnected() {
-                    emitServiceStatus(false);
+    /**
+     * 和风天气请求不依赖穿戴 SDK，不等待其就绪，返回 false 表示不是天气请求
+     */
+    private boolean handleWeatherCall(MethodCall call, Result result) {
+        switch (call.method) {
+            case "fetchWeather": {
+                String location = call.argument("location");
+                String days = call.argument("days");
+                if (TextUtils.isEmpty(location) || TextUtils.isEmpty(days)) {
+                    result.success(WearableErrorManager.createParamError("位置信息"));
+                    return true;
                 }
-            };
-
-            if (serviceApi != null) {
-                serviceApi.registerServiceConnectionListener(serviceConnectionListener);
-            }
-        }
-
-        void dispose() {
-            if (serviceApi != null) {
-                serviceApi.unregisterServiceConnectionListener(serviceConnectionListener);
-            }
-            if (messageApi != null && currentNode != null && listening) {
-                messageApi.removeListener(currentNode.id);
+                boolean allowStale = Boolean.TRUE.equals(call.argument("allowStale"));
+                runWeatherRequest(result, "获取天气成功", (client, config) -> client.getForecast(config, location, days, allowStale).toMap());
+                return true;
             }
-        }
-        
-        void getConnectedNode(Result result) {
-            if (nodeApi == null) {
-                result.success(WearableErrorManager.createError(
-                        WearableErrorManager.CODE_SDK_ERROR,
-                        null,
-                        null
-                ));
-                return;
+            case "getCachedWeather": {
+                String location = call.argument("location");
+                String days = call.argument("days");
+                if (TextUtils.isEmpty(location) || TextUtils.isEmpty(days)) {
+                    result.success(WearableErrorManager.createParamError("位置信息"));
+                    return true;
+                }
+                runWeatherRequest(result, "读取缓存成功", (client, config) -> {
+                    QWeatherClient.Forecast cached = client.getCachedForecast(config, location, days);
+                    return cached != null ? cached.toMap() : null;
+                });
+                return true;
             }
-
-            nodeApi.getConnectedNodes()
-                    .addOnSuccessListener(nodes -> {
-                        if (nodes == null || nodes.isEmpty()) {
-                            result.success(WearableErrorManager.createError(
-                                    WearableErrorManager.CODE_NO_DEVICE,
-                                    null,
-                                    null
-                            ));
-                            return;
-                        }
-
-                        currentNode = nodes.get(0);
-                        Map<String, Object> nodeMap = buildNodeMap(currentNode);
-                        result.success(WearableErrorManager.createSuccess("设备连接成功", nodeMap));
-                    })
-                    .addOnFailureListener(e -> {
-                        result.success(WearableErrorManager.createError(
-                                WearableErrorManager.CODE_CONNECTION_ERROR,
-                                e,
-                                null
-                        ));
-                    });
-        }
-
-        void requestPermissions(Result result) {
-            if (!ensureNode(result)) {
-                return;
+            case "lookupCity": {
+                String location = call.argument("location");
+                if (TextUtils.isEmpty(location)) {
+                    result.success(WearableErrorManager.createParamError("城市名称"));
+                    return true;
+                }
+                runWeatherRequest(result, "查询城市成功", (client, config) -> client.lookupCity(config, location));
+                return true;
             }
-            if (authApi == null) {
-                result.success(WearableErrorManager.createError(
-                        WearableErrorManager.CODE_SDK_ERROR,
-                        null,
-                        null
-                ));
-                return;
+            case "reverseGeocode": {
+                String coordinates = call.argument("coordinates");
+                if (TextUtils.isEmpty(coordinates)) {
+                    result.success(WearableErrorManager.createParamError("经纬度信息"));
+                    return true;
+                }
+                runWeatherRequest(result, "查询城市成功", (client, config) -> client.reverseGeocode(config, coordinates));
+                return true;
             }
-
-            Permission[] permissions = new Permission[]{Permission.DEVICE_MANAGER, Permission.NOTIFY};
-            authApi.requestPermission(currentNode.id, permissions)
-                    .addOnSuccessListener(granted -> {
-                        List<String> grantedNames = new ArrayList<>();
-                        if (granted != null) {
-                            for (Permission permission : granted) {
-                                grantedNames.add(permission.toString());
-                            }
-                        }
-                        result.success(WearableErrorManager.createSuccess("权限申请成功", grantedNames));
-                    })
-                    .addOnFailureListener(e -> {
-                        result.success(WearableErrorManager.createError(
-                                WearableErrorManager.CODE_PERMISSION_ERROR,
-                                e,
-                                null
-                        ));
-                    });
-        }
-
-        void sendMessage(String message, Result result) {
-            if (!ensureNode(result)) {
-                return;
+            case "fetchWeatherByCoordinates": {
+                String coordinates = call.argument("coordinates");
+                String days = call.argument("days");
+                if (TextUtils.isEmpty(coordinates) || TextUtils.isEmpty(days)) {
+                    result.success(WearableErrorManager.createParamError("经纬度信息"));
+                    return true;
+                }
+                runWeatherRequest(result, "获取天气成功", (client, config) -> client.fetchForecastWithCity(config, coordinates, days));
+                return true;
             }
-            if (messageApi == null) {
-                result.success(WearableErrorManager.createError(
-                        WearableErrorManager.CODE_SDK_ERROR,
-                        null,
-                        null
+            case "prefetchForecasts": {
+                Number limit = call.argument("limit");
+                boolean push = Boolean.TRUE.equals(call.argument("push"));
+                // 在主线程取出管理器，网络请求期间引擎分离会清空字段
+                WearableSdkManager manager = sdkManager;
+                runWeatherRequest(result, "预取完成", (client, config) -> prefetchForecasts(
+                        client,
+                        config,
+                        limit != null && limit.intValue() > 0 ? limit.intValue() : DEFAULT_PREFETCH_LIMIT,
+                        push ? manager : null
                 ));
-                return;
-            }
-            if (TextUtils.isEmpty(message)) {
-                result.success(WearableErrorManager.createParamError("消息内容"));
-                return;
+                return true;
             }
-
-            messageApi.sendMessage(currentNode.id, message.getBytes(StandardCharsets.UTF_8))
-                    .addOnSuccessListener(unused -> result.success(WearableErrorManager.createSuccess("消息发送成功", null)))
-                    .addOnFailureListener(e -> {
-                        result.success(WearableErrorManager.createError(
-                                WearableErrorManager.CODE_MESSAGE_ERROR,
-                                e,
-                                null
-                        ));
-                    });
+            default:
+                return false;
         }
+    }
 
-        void sendNotification(String title, String message, Result result) {
-            if (!ensureNode(result)) {
-                return;
-            }
-            if (notifyApi == null) {
-                result.success(WearableErrorManager.createError(
-                        WearableErrorManager.CODE_SDK_ERROR,
-                        null,
-                        null
-                ));
-                return;
-            }
-            if (TextUtils.isEmpty(title)) {
-                result.success(WearableErrorManager.createParamError("通知标题"));
-                return;
-            }
-            if (TextUtils.isEmpty(message)) {
-                result.success(WearableErrorManager.createParamError("通知内容"));
-                return;
-            }
-
-            notifyApi.sendNotify(currentNode.id, title, message)
-                    .addOnSuccessListener(status ->
-                            result.success(WearableErrorManager.createSuccess("通知发送成功", Collections.singletonMap("status", status.toString()))))
-                    .addOnFailureListener(e -> {
-                        result.success(WearableErrorManager.createError(
-                                WearableErrorManager.CODE_NOTIFY_ERROR,
-                                e,
-                                null
-                        ));
-                    });
+    /**
+     * 在网络线程执行：预取最近使用的位置，pushManager 不为 null 时把成功的结果打包发送到手表并等待发送结果
+     */
+    private Map<String, Object> prefetchForecasts(
+            QWeatherClient client,
+            QWeatherConfig config,
+            int limit,
+            WearableSdkManager pushManager
+    ) throws IOException {
+        if (TextUtils.isEmpty(config.apiKey)) {
+            throw new IOException("未配置 API Key");
         }
-
-        void startListening(Result result) {
-            if (!ensureNode(result)) {
-                return;
-            }
-            if (messageApi == null) {
-                result.success(WearableErrorManager.createError(
-                        WearableErrorManager.CODE_SDK_ERROR,
-                        null,
-                        null
-                ));
-                return;
-            }
-            if (listening) {
-                result.success(WearableErrorManager.createSuccess("已在监听消息", buildListeningData(true)));
-                return;
+        List<Map<String, Object>> locations = new ArrayList<>();
+        List<Map<String, Object>> cities = new ArrayList<>();
+        for (QWeatherClient.Prefetched prefetched : client.prefetch(config, config.loadRecentLocations(applicationContext, limit))) {
+            locations.add(prefetched.toMap());
+            if (pushManager != null && prefetched.forecast != null) {
+                try {
+                    cities.add(QWeatherClient.toPayloadMap(prefetched.forecast.body, prefetched.location.name));
+                } catch (IOException e) {
+                    // 返回码异常的城市不打包
+                }
             }
-
-            messageApi.addListener(currentNode.id, messageListener)
-                    .addOnSuccessListener(unused -> {
-                        listening = true;
-                        result.success(WearableErrorManager.createSuccess("开始监听消息", buildListeningData(true)));
-                    })
-                    .addOnFailureListener(e -> {
-                        result.success(WearableErrorManager.createError(
-                                WearableErrorManager.CODE_LISTEN_ERROR,
-                                e,
-                                null
-                        ));
-                    });
         }
 
-        void stopListening(Result result) {
-            if (!ensureNode(result)) {
-                return;
-            }
-            if (messageApi == null) {
-                result.success(WearableErrorManager.createError(
-                        WearableErrorManager.CODE_SDK_ERROR,
-                        null,
-                        null
-                ));
-                return;
-            }
-            if (!listening) {
-                result.success(WearableErrorManager.createSuccess("监听已停止", buildListeningData(false)));
-                return;
+        Map<String, Object> data = new HashMap<>();
+        data.put("locations", locations);
+        if (!cities.isEmpty()) {
+            AtomicReference<Map<String, Object>> pushResponse = new AtomicReference<>();
+            CountDownLatch pushed = new CountDownLatch(1);
+            mainHandler.post(() -> pushManager.whenReady(() -> pushManager.sendForecastBundle(cities, response -> {
+                pushResponse.set(response);
+                pushed.countDown();
+            })));
+            try {
+                pushed.await(BUNDLE_PUSH_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
-
-            messageApi.removeListener(currentNode.id)
-                    .addOnSuccessListener(unused -> {
-                        listening = false;
-                        result.success(WearableErrorManager.createSuccess("停止监听消息", buildListeningData(false)));
-                    })
-                    .addOnFailureListener(e -> {
-                        result.success(WearableErrorManager.createError(
-                                WearableErrorManager.CODE_STOP_LISTEN_ERROR,
-                                e,
-                                null
-                        ));
-                    });
+            Map<String, Object> response = pushResponse.get();
+            data.put("push", response != null ? response : WearableErrorManager.createError(
+                    WearableErrorManager.CODE_MESSAGE_ERROR,
+                    null,
+                    null,
+                    "多城市天气发送超时",
+                    null,
+                    null
+            ));
         }
+        return data;
+    }
 
-        void checkWearableApp(Result result) {
-            PackageManager packageManager = context.getPackageManager();
+    private void runWeatherRequest(Result result, String successMessage, WeatherRequest request) {
+        QWeatherClient client = QWeatherClient.getInstance(applicationContext);
+        client.execute(() -> {
+            Object response;
             try {
-                packageManager.getPackageInfo("com.mi.health", 0);
-                result.success(WearableErrorManager.createSuccess(
-                        "小米运动健康已安装",
-                        Collections.singletonMap("installed", true)
-                ));
-            } catch (PackageManager.NameNotFoundException e) {
-                // 检查另一个包名 com.xiaomi.wearable
-                try {
-                    packageManager.getPackageInfo("com.xiaomi.wearable", 0);
-                    result.success(WearableErrorManager.createSuccess(
-                            "小米运动健康已安装",
-                            Collections.singletonMap("installed", true)
-                    ));
-                } catch (PackageManager.NameNotFoundException e2) {
-                    result.success(WearableErrorManager.createError(
-                            WearableErrorManager.CODE_APP_NOT_INSTALLED,
-                            Collections.singletonMap("installed", false)
-                    ));
-                }
-            } catch (Exception e) {
-                result.success(WearableErrorManager.createError(
-                        WearableErrorManager.CODE_CHECK_FAILED,
+                Object data = request.run(client, QWeatherConfig.load(applicationContext));
+                response = WearableErrorManager.createSuccess(successMessage, data);
+            } catch (IOException | RuntimeException e) {
+                // 解析异常等运行时错误同样要回复，否则 Dart 端的调用会一直等待
+                response = WearableErrorManager.createError(
+                        WearableErrorManager.CODE_WEATHER_REQUEST_FAILED,
                         e,
-                        null
-                ));
-            }
-        }
-
-        void checkWearApp(Result result) {
-            if (!ensureNode(result)) {
-                return;
-            }
-            if (authApi == null) {
-                result.success(WearableErrorManager.createError(
-                        WearableErrorManager.CODE_SDK_ERROR,
+                        null,
+                        e.getMessage(),
                         null,
                         null
-                ));
-                return;
+                );
             }
+            final Object reply = response;
+            mainHandler.post(() -> result.success(reply));
+        });
+    }
 
-            Permission[] permissions = new Permission[]{Permission.DEVICE_MANAGER};
-            authApi.checkPermissions(currentNode.id, permissions)
-                    .addOnSuccessListener(results -> {
-                        boolean granted = results != null && results.length > 0 && results[0];
-                        if (!granted) {
-                            result.success(WearableErrorManager.createError(
-                                    WearableErrorManager.CODE_PERMISSION_REQUIRED,
-                                    null,
-                                    null
-                            ));
-                            return;
-                        }
-                        nodeApi.isWearAppInstalled(currentNode.id)
-                                .addOnSuccessListener(installed -> {
-                                    if (installed) {
-                                        result.success(WearableErrorManager.createSuccess(
-                                                "快应用已安装",
-                                                Collections.singletonMap("installed", true)
-                                        ));
-                                    } else {
-                                        result.success(WearableErrorManager.createError(
-                                                WearableErrorManager.CODE_WEAR_APP_NOT_INSTALLED,
-                                                Collections.singletonMap("installed", false)
-                                        ));
-                                    }
-                                })
-                                .addOnFailureListener(e -> {
-                                    result.success(WearableErrorManager.createError(
-                                            WearableErrorManager.CODE_CHECK_FAILED,
-                                            e,
-                                            null
-                                    ));
-                                });
-                    })
-                    .addOnFailureListener(e -> {
-                        result.success(WearableErrorManager.createError(
-                                WearableErrorManager.CODE_PERMISSION_CHECK_FAILED,
-                                e,
-                                null
-                        ));
-                    });
+    /**
+     * 握手同步的数据：新版传 data（天气 Map，原生层序列化），旧版传 payload（JSON 字符串）
+     */
+    private static byte[] handshakePayload(WearableSdkManager manager, MethodCall call) {
+        Map<String, Object> data = call.argument("data");
+        if (data != null) {
+            return manager.encodeWeatherJson(data);
         }
+        String payload = call.argument("payload");
+        return payload != null ? payload.getBytes(StandardCharsets.UTF_8) : null;
+    }
 
-        void launchWearApp(String path, Result result) {
-            if (!ensureNode(result)) {
-                return;
-            }
-            String launchPath = TextUtils.isEmpty(path) ? "/" : path;
-            nodeApi.launchWearApp(currentNode.id, launchPath)
-                    .addOnSuccessListener(unused ->
-                            result.success(WearableErrorManager.createSuccess("快应用启动成功", Collections.singletonMap("path", launchPath))))
-                    .addOnFailureListener(e -> {
-                        result.success(WearableErrorManager.createError(
-                                WearableErrorManager.CODE_LAUNCH_FAILED,
-                                e,
-                                null
-                        ));
-                    });
+    /**
+     * 记录从 onMethodCall 进入到返回结果的耗时
+     */
+    private static final class TimedResult implements Result {
+        private static final String NOT_IMPLEMENTED = "NOT_IMPLEMENTED";
+
+        private final String method;
+        private final WearableMetrics metrics;
+        private final Result delegate;
+        private final long startedAt = SystemClock.elapsedRealtime();
+
+        TimedResult(String method, WearableMetrics metrics, Result delegate) {
+            this.method = method;
+            this.metrics = metrics;
+            this.delegate = delegate;
         }
 
-        private boolean ensureNode(Result result) {
-            if (currentNode != null) {
-                return true;
-            }
-            result.success(WearableErrorManager.createError(
-                    WearableErrorManager.CODE_NO_DEVICE,
-                    null,
-                    null
-            ));
-            return false;
+        @Override
+        @SuppressWarnings("unchecked")
+        public void success(Object response) {
+            metrics.recordOperation(method, startedAt, response instanceof Map ? (Map<String, Object>) response : null);
+            delegate.success(response);
         }
 
-        private void emitServiceStatus(boolean connected) {
-            Map<String, Object> payload = new HashMap<>();
-            payload.put("connected", connected);
-            payload.put("timestamp", System.currentTimeMillis());
-            mainHandler.post(() -> channel.invokeMethod("onServiceStatusChanged", payload));
+        @Override
+        public void error(@NonNull String errorCode, String errorMessage, Object errorDetails) {
+            metrics.recordOperation(method, startedAt, false, errorCode);
+            delegate.error(errorCode, errorMessage, errorDetails);
         }
 
-        private static Map<String, Object> buildNodeMap(Node node) {
-            Map<String, Object> map = new HashMap<>();
-            map.put("id", node.id);
-            map.put("name", node.name);
-            map.put("attributes", new HashMap<>());
-            return map;
+        @Override
+        public void notImplemented() {
+            metrics.recordOperation(method, startedAt, false, NOT_IMPLEMENTED);
+            delegate.notImplemented();
         }
+    }
 
-        private Map<String, Object> buildListeningData(boolean listening) {
-            Map<String, Object> map = new HashMap<>();
-            map.put("listening", listening);
-            if (currentNode != null) {
-                map.put("nodeId", currentNode.id);
-                map.put("nodeName", currentNode.name);
-            }
-            return map;
+    @Override
+    public void onDetachedFromEngine(@NonNull FlutterPluginBinding binding) {
+        channel.setMethodCallHandler(null);
+        payloadChannel.setMessageHandler(null);
+        if (sdkManager != null) {
+            sdkManager.detachChannel(channel);
+            sdkManager = null;
         }
     }
 }
-
@@ -0,0 +1,155 @@
+package com.application.zaona.weather;
+
+import android.os.SystemClock;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 轻量指标统计：各操作的耗时直方图、收发字节数和按错误码的失败次数
+ *
+ * 直方图使用固定分桶，记录时不分配对象；快照仅在 getMetrics 时构建。可在任意线程调用。
+ */
+final class WearableMetrics {
+    // 分桶上界（毫秒），最后一个桶收纳所有更慢的请求
+    private static final long[] BUCKET_BOUNDS_MS = {5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    private static final class Histogram {
+        final long[] buckets = new long[BUCKET_BOUNDS_MS.length + 1];
+        long count;
+        long failures;
+        long totalMs;
+        long maxMs;
+
+        void record(long elapsedMs, boolean success) {
+            int index = 0;
+            while (index < BUCKET_BOUNDS_MS.length && elapsedMs > BUCKET_BOUNDS_MS[index]) {
+                index++;
+            }
+            buckets[index]++;
+            count++;
+            totalMs += elapsedMs;
+            if (elapsedMs > maxMs) {
+                maxMs = elapsedMs;
+            }
+            if (!success) {
+                failures++;
+            }
+        }
+
+        /**
+         * 按分桶估算分位数，返回所在桶的上界；落在最后一个桶时返回最大值
+         */
+        long percentile(double quantile) {
+            long target = (long) Math.ceil(count * quantile);
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= target && seen > 0) {
+                    return i < BUCKET_BOUNDS_MS.length ? Math.min(BUCKET_BOUNDS_MS[i], maxMs) : maxMs;
+                }
+            }
+            return 0;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new HashMap<>();
+            map.put("count", count);
+            map.put("failures", failures);
+            map.put("meanMs", count > 0 ? totalMs / count : 0);
+            map.put("maxMs", maxMs);
+            map.put("p50Ms", percentile(0.5));
+            map.put("p95Ms", percentile(0.95));
+            List<Long> bucketList = new ArrayList<>(buckets.length);
+            for (long bucket : buckets) {
+                bucketList.add(bucket);
+            }
+            map.put("buckets", bucketList);
+            return map;
+        }
+    }
+
+    private final Map<String, Histogram> operations = new LinkedHashMap<>();
+    private final Map<String, long[]> failuresByCode = new HashMap<>();
+    private long bytesSent;
+    private long bytesReceived;
+    private long messagesSent;
+    private long messagesReceived;
+    private long startedAt = SystemClock.elapsedRealtime();
+
+    /**
+     * 按 Dart 收到的响应 Map 记录，success 为 false 时按其中的 code 计入失败
+     */
+    void recordOperation(String operation, long startedAtMs, Map<String, Object> response) {
+        boolean success = response == null || !Boolean.FALSE.equals(response.get("success"));
+        Object code = success ? null : response.get("code");
+        recordOperation(operation, startedAtMs, success, code != null ? code.toString() : null);
+    }
+
+    synchronized void recordOperation(String operation, long startedAtMs, boolean success, String code) {
+        Histogram histogram = operations.get(operation);
+        if (histogram == null) {
+            histogram = new Histogram();
+            operations.put(operation, histogram);
+        }
+        histogram.record(SystemClock.elapsedRealtime() - startedAtMs, success);
+        if (!success) {
+            String key = code != null ? code : "UNKNOWN";
+            long[] counter = failuresByCode.get(key);
+            if (counter == null) {
+                counter = new long[1];
+                failuresByCode.put(key, counter);
+            }
+            counter[0]++;
+        }
+    }
+
+    synchronized void recordSent(int bytes) {
+        messagesSent++;
+        bytesSent += bytes;
+    }
+
+    synchronized void recordReceived(int bytes) {
+        messagesReceived++;
+        bytesReceived += bytes;
+    }
+
+    synchronized Map<String, Object> snapshot() {
+        Map<String, Object> operationMaps = new LinkedHashMap<>();
+        for (Map.Entry<String, Histogram> entry : operations.entrySet()) {
+            operationMaps.put(entry.getKey(), entry.getValue().toMap());
+        }
+        Map<String, Object> failures = new HashMap<>();
+        for (Map.Entry<String, long[]> entry : failuresByCode.entrySet()) {
+            failures.put(entry.getKey(), entry.getValue()[0]);
+        }
+        List<Long> bounds = new ArrayList<>(BUCKET_BOUNDS_MS.length);
+        for (long bound : BUCKET_BOUNDS_MS) {
+            bounds.add(bound);
+        }
+
+        Map<String, Object> snapshot = new HashMap<>();
+        snapshot.put("operations", operationMaps);
+        snapshot.put("bucketBoundsMs", bounds);
+        snapshot.put("failuresByCode", failures);
+        snapshot.put("bytesSent", bytesSent);
+        snapshot.put("bytesReceived", bytesReceived);
+        snapshot.put("messagesSent", messagesSent);
+        snapshot.put("messagesReceived", messagesReceived);
+        snapshot.put("windowMs", SystemClock.elapsedRealtime() - startedAt);
+        return snapshot;
+    }
+
+    synchronized void reset() {
+        operations.clear();
+        failuresByCode.clear();
+        bytesSent = 0;
+        bytesReceived = 0;
+        messagesSent = 0;
+        messagesReceived = 0;
+        startedAt = SystemClock.elapsedRealtime();
+    }
+}
@@ -0,0 +1,1687 @@
+package com.application.zaona.weather;
+
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.text.TextUtils;
+
+import com.xiaomi.xms.wearable.auth.Permission;
+import com.xiaomi.xms.wearable.message.OnMessageReceivedListener;
+import com.xiaomi.xms.wearable.node.Node;
+import com.xiaomi.xms.wearable.service.OnServiceConnectionListener;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import io.flutter.plugin.common.MethodChannel;
+import io.flutter.plugin.common.MethodChannel.Result;
+
+/**
+ * 小米穿戴 SDK 的进程级封装，供 Flutter 插件和后台同步任务共用
+ */
+final class WearableSdkManager {
+    private static WearableSdkManager instance;
+
+    // 握手探测参数：首次快速探测，之后按倍率退避，直到上限；设备样本足够后改用 HandshakeTimingModel 推算的值
+    private static final long HANDSHAKE_INITIAL_INTERVAL_MS = 200;
+    private static final long HANDSHAKE_MAX_INTERVAL_MS = 1000;
+    private static final float HANDSHAKE_BACKOFF_FACTOR = 1.5f;
+    private static final long HANDSHAKE_DEFAULT_TIMEOUT_MS = 9000;
+    // 后台同步只探测正在运行的快应用，不需要等待应用启动
+    private static final long BACKGROUND_PROBE_TIMEOUT_MS = 5000;
+    private static final HandshakeTimingModel.Timing DEFAULT_HANDSHAKE_TIMING = new HandshakeTimingModel.Timing(
+            HANDSHAKE_INITIAL_INTERVAL_MS,
+            HANDSHAKE_MAX_INTERVAL_MS,
+            HANDSHAKE_DEFAULT_TIMEOUT_MS,
+            false
+    );
+    private static final String HANDSHAKE_START = "start";
+    private static final String HANDSHAKE_READY = "ready";
+    private static final String SYNC_MISMATCH = "mismatch";
+
+    private static final byte[] HANDSHAKE_START_BYTES = HANDSHAKE_START.getBytes(StandardCharsets.UTF_8);
+
+    // 手表拉取协议：pull:<手表已有的快照序号>[:<预报天数>[:<位置>]]，
+    // 回复完整快照或增量帧；数据没有变化时回复 notmodified:<序号>，无法获取时回复 pullfailed
+    private static final String PULL_PREFIX = "pull:";
+    private static final String PULL_NOT_MODIFIED = "notmodified:";
+    private static final byte[] PULL_FAILED_BYTES = "pullfailed".getBytes(StandardCharsets.UTF_8);
+
+    // 发送队列的合并键：同类数据在队列中只保留最新一份
+    private static final String COALESCE_WEATHER = "weather";
+    private static final String COALESCE_PAYLOAD = "payload";
+    private static final String COALESCE_PROBE = "probe";
+    private static final String COALESCE_BUNDLE = "bundle";
+    private static final String COALESCE_HANDSHAKE = "handshake";
+
+    // 服务恢复后稍等再重新同步，避免连续重连时重复执行；刷新设备失败时按固定间隔再试
+    private static final long RESYNC_SETTLE_MS = 300;
+    private static final long RESYNC_RETRY_DELAY_MS = 1500;
+    private static final int RESYNC_MAX_ATTEMPTS = 4;
+
+    private static final String FLIGHT_NODES = "nodes";
+    // 刷新设备成功时交给 RetryPolicy 的占位响应，发生重试时会被复制并附加 attempts，只能按 success 字段判断
+    private static final Map<String, Object> NODES_REFRESHED = WearableErrorManager.createSuccess("设备列表已刷新", null);
+    private static final String FLIGHT_CHECK_WEAR_APP = "checkWearApp:";
+
+    private static final ResponseCallback IGNORE_RESPONSE = response -> {
+    };
+
+    private static final Map<String, Object> INSTALLED_DATA = Collections.singletonMap("installed", true);
+    private static final Map<String, Object> NOT_INSTALLED_DATA = Collections.singletonMap("installed", false);
+
+    private final Context context;
+    private final WearableBackend backend;
+    private final Handler mainHandler;
+    private final Executor mainExecutor;
+    private MethodChannel channel;
+
+    // SDK 接口在后台线程创建，就绪前到达的调用排队等待
+    private WearableBackend.NodeClient nodeApi;
+    private WearableBackend.MessageClient messageApi;
+    private WearableBackend.AuthClient authApi;
+    private WearableBackend.NotifyClient notifyApi;
+    private WearableBackend.ServiceClient serviceApi;
+    private boolean ready;
+    private final List<Runnable> pendingUntilReady = new ArrayList<>();
+    private boolean deviceConnectedLogged;
+
+    // 按设备缓存的不可变响应数据，设备名称变化时重建
+    private final Map<String, Map<String, Object>> nodeMaps = new HashMap<>();
+    private Node listeningDataNode;
+    private Map<String, Object> listeningData;
+    private Map<String, Object> notListeningData;
+
+    // 以下状态只在主线程读写，SDK 任务回调统一经 mainExecutor 切回主线程
+    private Node currentNode;
+    private final Map<String, Node> connectedNodes = new LinkedHashMap<>();
+    private final WearableStateCache stateCache = new WearableStateCache();
+    private final SingleFlight singleFlight = new SingleFlight();
+    private final RetryPolicy retryPolicy;
+    private final WearableMetrics metrics = new WearableMetrics();
+    private final OutboundQueue outboundQueue;
+    // listening 表示 Dart 是否需要收到手表消息，在回调线程读取；SDK 监听按设备注册在 listenerNodes 中，
+    // 停止转发后仍然保留，用于握手回复、分片确认和手表拉取，设备断开时移除
+    private volatile boolean listening;
+    private final Set<String> listenerNodes = new HashSet<>();
+    private HandshakeSession handshakeSession;
+
+    private final WeatherSyncState syncState;
+    private final HandshakeTimingModel timingModel;
+    private final Map<String, Map<String, Object>> lastPayloads = new HashMap<>();
+    // 每台设备最近一次未送达的天气推送，服务恢复后重新发送，送达后移除
+    private final Map<String, Runnable> pendingPushes = new LinkedHashMap<>();
+    private boolean serviceLost;
+    private final Runnable resyncTask = () -> resyncAfterReconnect(1);
+    // 兼容模式 JSON 序列化复用同一缓冲区，只在主线程使用
+    private final WeatherJsonWriter jsonWriter = new WeatherJsonWriter();
+
+    private final Map<Integer, ChunkedTransfer> transfers = new HashMap<>();
+    private int nextTransferId = 1;
+
+    // SDK 回调在后台线程解码和分类，只有需要主线程处理的消息才投递到主线程
+    private final ExecutorService callbackExecutor = Executors.newSingleThreadExecutor();
+    private final WearableEventBatcher eventBatcher;
+    private final OnMessageReceivedListener messageListener;
+
+    private final OnServiceConnectionListener serviceConnectionListener;
+
+    static synchronized WearableSdkManager getInstance(Context context) {
+        if (instance == null) {
+            instance = new WearableSdkManager(context, new Handler(Looper.getMainLooper()), new XmsWearableBackend(context));
+        }
+        return instance;
+    }
+
+    /**
+     * 进程内只应通过 getInstance 获取；直接构造仅用于单元测试接入 FakeWearableBackend
+     */
+    WearableSdkManager(Context context, Handler handler, WearableBackend backend) {
+        this.context = context.getApplicationContext();
+        this.backend = backend;
+        this.mainHandler = handler;
+        this.mainExecutor = handler::post;
+        retryPolicy = new RetryPolicy(handler);
+        outboundQueue = new OutboundQueue(handler, retryPolicy, this::resolveNode);
+        syncState = new WeatherSyncState(this.context);
+        timingModel = new HandshakeTimingModel(this.context);
+        eventBatcher = new WearableEventBatcher(mainHandler, this::emitToChannel);
+
+        messageListener = (nodeId, bytes) -> callbackExecutor.execute(() -> {
+            metrics.recordReceived(bytes.length);
+            final String message = new String(bytes, StandardCharsets.UTF_8);
+            if (message.startsWith(ChunkedTransfer.ACK_PREFIX)) {
+                // 分片确认只在原生层消费，不转发给 Dart
+                mainHandler.post(() -> onTransferAck(message));
+                return;
+            }
+            if (message.startsWith(PULL_PREFIX)) {
+                // 拉取请求由原生层直接应答，不唤醒 Dart
+                mainHandler.post(() -> onPullRequest(nodeId, message));
+                return;
+            }
+            if (message.contains(HANDSHAKE_READY)) {
+                mainHandler.post(() -> onHandshakeReady(nodeId));
+            } else if (message.contains(SYNC_MISMATCH)) {
+                mainHandler.post(() -> onSyncMismatch(nodeId));
+            }
+            if (listening) {
+                eventBatcher.addMessage(message);
+            }
+        });
+
+        serviceConnectionListener = new OnServiceConnectionListener() {
+            @Override
+            public void onServiceConnected() {
+                emitServiceStatus(true);
+                mainHandler.post(() -> onServiceRestored());
+            }
+
+            @Override
+            public void onServiceDisconnected() {
+                mainHandler.post(() -> {
+                    serviceLost = true;
+                    mainHandler.removeCallbacks(resyncTask);
+                    stateCache.invalidateAll();
+                });
+                emitServiceStatus(false);
+            }
+        };
+
+        new Thread(this::createApis, "wearable-sdk-init").start();
+    }
+
+    private void createApis() {
+        final WearableBackend.NodeClient node = backend.getNodeClient();
+        final WearableBackend.MessageClient message = backend.getMessageClient();
+        final WearableBackend.AuthClient auth = backend.getAuthClient();
+        final WearableBackend.NotifyClient notify = backend.getNotifyClient();
+        final WearableBackend.ServiceClient service = backend.getServiceClient();
+
+        mainHandler.post(() -> {
+            nodeApi = node;
+            messageApi = message;
+            authApi = auth;
+            notifyApi = notify;
+            serviceApi = service;
+            if (serviceApi != null) {
+                serviceApi.registerServiceConnectionListener(serviceConnectionListener);
+            }
+            ready = true;
+            WeatherApplication.logStartupStage("穿戴 SDK 已就绪");
+
+            List<Runnable> pending = new ArrayList<>(pendingUntilReady);
+            pendingUntilReady.clear();
+            for (Runnable action : pending) {
+                action.run();
+            }
+            startPullServing();
+        });
+    }
+
+    /**
+     * SDK 就绪后在所有已连接设备上注册监听，手表无需等待手机推送即可拉取数据
+     */
+    private void startPullServing() {
+        if (nodeApi == null || messageApi == null) {
+            return;
+        }
+        refreshConnectedNodes(error -> {
+            if (error == null) {
+                ensureListeners(new ArrayList<>(connectedNodes.keySet()), ignored -> {
+                });
+            }
+        });
+    }
+
+    private interface ListenerCallback {
+        void onResult(Exception error);
+    }
+
+    /**
+     * 确保 SDK 监听注册在指定设备上，已注册时直接回调；各设备的监听互不影响
+     */
+    private void ensureListener(String nodeId, ListenerCallback callback) {
+        if (listenerNodes.contains(nodeId)) {
+            callback.onResult(null);
+            return;
+        }
+        messageApi.addListener(nodeId, messageListener)
+                .addOnSuccessListener(mainExecutor, unused -> {
+                    listenerNodes.add(nodeId);
+                    callback.onResult(null);
+                })
+                .addOnFailureListener(mainExecutor, callback::onResult);
+    }
+
+    /**
+     * 依次在多台设备上注册监听，全部完成后回调第一个错误
+     */
+    private void ensureListeners(List<String> nodeIds, ListenerCallback callback) {
+        if (nodeIds.isEmpty()) {
+            callback.onResult(null);
+            return;
+        }
+        Exception[] firstError = {null};
+        int[] pending = {nodeIds.size()};
+        for (String nodeId : nodeIds) {
+            ensureListener(nodeId, e -> {
+                if (e != null && firstError[0] == null) {
+                    firstError[0] = e;
+                }
+                if (--pending[0] == 0) {
+                    callback.onResult(firstError[0]);
+                }
+            });
+        }
+    }
+
+    /**
+     * 已断开设备上的监听随之失效，从记录中移除，重新连接后按需再注册
+     */
+    private void pruneListeners() {
+        for (String nodeId : new ArrayList<>(listenerNodes)) {
+            if (!connectedNodes.containsKey(nodeId)) {
+                listenerNodes.remove(nodeId);
+                messageApi.removeListener(nodeId);
+            }
+        }
+    }
+
+    /**
+     * SDK 接口就绪后在主线程执行，已就绪时立即执行
+     */
+    void whenReady(Runnable action) {
+        if (ready) {
+            action.run();
+        } else {
+            pendingUntilReady.add(action);
+        }
+    }
+
+    WearableMetrics getMetrics() {
+        return metrics;
+    }
+
+    void attachChannel(MethodChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Flutter 引擎分离时调用：停止向 Dart 转发消息，SDK 监听保留以继续响应手表拉取，
+     * 进行中的同步与传输继续在原生层完成
+     */
+    void detachChannel(MethodChannel detached) {
+        if (channel != detached) {
+            return;
+        }
+        channel = null;
+        listening = false;
+    }
+
+    void getConnectedNode(Result result) {
+        if (nodeApi == null) {
+            result.success(WearableErrorManager.createError(
+                    WearableErrorManager.CODE_SDK_ERROR,
+                    null,
+                    null
+            ));
+            return;
+        }
+
+        refreshConnectedNodes(error -> {
+            if (error != null) {
+                result.success(error);
+                return;
+            }
+            if (!deviceConnectedLogged) {
+                deviceConnectedLogged = true;
+                WeatherApplication.logStartupStage("冷启动到设备连接");
+            }
+            Map<String, Object> nodeMap = buildNodeMap(currentNode);
+            result.success(WearableErrorManager.createSharedSuccess("设备连接成功", nodeMap));
+        });
+    }
+
+    void getAllConnectedNodes(Result result) {
+        if (nodeApi == null) {
+            result.success(WearableErrorManager.createError(
+                    WearableErrorManager.CODE_SDK_ERROR,
+                    null,
+                    null
+            ));
+            return;
+        }
+
+        refreshConnectedNodes(error -> {
+            if (error != null) {
+                result.success(error);
+                return;
+            }
+            List<Map<String, Object>> nodeMaps = new ArrayList<>();
+            for (Node node : connectedNodes.values()) {
+                nodeMaps.add(buildNodeMap(node));
+            }
+            result.success(WearableErrorManager.createSuccess("设备连接成功", nodeMaps));
+        });
+    }
+
+    /**
+     * 刷新已连接设备列表；当前设备仍在线时保持不变，否则切换为列表中的第一台
+     */
+    private void refreshConnectedNodes(ResponseCallback onDone) {
+        List<Node> cached = stateCache.getNodes();
+        if (cached != null) {
+            onDone.onResponse(applyConnectedNodes(cached));
+            return;
+        }
+
+        singleFlight.run(FLIGHT_NODES, onDone, done -> retryPolicy.execute(attemptDone -> nodeApi.getConnectedNodes()
+                .addOnSuccessListener(mainExecutor, nodes -> {
+                    if (nodes != null && !nodes.isEmpty()) {
+                        stateCache.putNodes(nodes);
+                    }
+                    Map<String, Object> error = applyConnectedNodes(nodes);
+                    attemptDone.onResponse(error != null ? error : NODES_REFRESHED);
+                })
+                .addOnFailureListener(mainExecutor, e -> {
+                    stateCache.invalidateAll();
+                    attemptDone.onResponse(WearableErrorManager.createError(
+                            WearableErrorManager.CODE_CONNECTION_ERROR,
+                            e,
+                            null
+                    ));
+                }), response -> done.onResponse(Boolean.TRUE.equals(response.get("success")) ? null : response)));
+    }
+
+    /**
+     * 重试发送前确认目标设备仍在线
+     */
+    private void resolveNode(String nodeId, Runnable onAvailable, Runnable onUnavailable) {
+        stateCache.invalidateNode(nodeId);
+        refreshConnectedNodes(error -> {
+            if (error == null && connectedNodes.containsKey(nodeId)) {
+                onAvailable.run();
+            } else {
+                onUnavailable.run();
+            }
+        });
+    }
+
+    private Map<String, Object> applyConnectedNodes(List<Node> nodes) {
+        connectedNodes.clear();
+        if (nodes == null || nodes.isEmpty()) {
+            currentNode = null;
+            pruneListeners();
+            return WearableErrorManager.createError(
+                    WearableErrorManager.CODE_NO_DEVICE,
+                    null,
+                    null
+            );
+        }
+
+        for (Node node : nodes) {
+            connectedNodes.put(node.id, node);
+        }
+        if (currentNode == null || !connectedNodes.containsKey(currentNode.id)) {
+            currentNode = nodes.get(0);
+        } else {
+            currentNode = connectedNodes.get(currentNode.id);
+        }
+        pruneListeners();
+        return null;
+    }
+
+    void requestPermissions(Result result) {
+        if (!ensureNode(result)) {
+            return;
+        }
+        if (authApi == null) {
+            result.success(WearableErrorManager.createError(
+                    WearableErrorManager.CODE_SDK_ERROR,
+                    null,
+                    null
+            ));
+            return;
+        }
+
+        String nodeId = currentNode.id;
+        Permission[] permissions = new Permission[]{Permission.DEVICE_MANAGER, Permission.NOTIFY};
+        authApi.requestPermission(nodeId, permissions)
+                .addOnSuccessListener(mainExecutor, granted -> {
+                    List<String> grantedNames = new ArrayList<>();
+                    List<String> cachedNames = new ArrayList<>();
+                    if (granted != null) {
+                        for (Permission permission : granted) {
+                            grantedNames.add(permission.toString());
+                            cachedNames.add(permission.getName());
+                        }
+                    }
+                    stateCache.putGrantedPermissions(nodeId, cachedNames);
+                    result.success(WearableErrorManager.createSuccess("权限申请成功", grantedNames));
+                })
+                .addOnFailureListener(mainExecutor, e -> {
+                    stateCache.invalidateNode(nodeId);
+                    result.success(WearableErrorManager.createError(
+                            WearableErrorManager.CODE_PERMISSION_ERROR,
+                            e,
+                            null
+                    ));
+                });
+    }
+
+    void sendMessage(String message, Result result) {
+        if (!ensureNode(result)) {
+            return;
+        }
+        if (messageApi == null) {
+            result.success(WearableErrorManager.createError(
+                    WearableErrorManager.CODE_SDK_ERROR,
+                    null,
+                    null
+            ));
+            return;
+        }
+        if (TextUtils.isEmpty(message)) {
+            result.success(WearableErrorManager.createParamError("消息内容"));
+            return;
+        }
+
+        sendBytes(currentNode.id, message.getBytes(StandardCharsets.UTF_8), null, result::success);
+    }
+
+    /**
+     * 兼容模式发送天气数据：由原生层直接序列化为 UTF-8 JSON，只保留手表使用的字段
+     */
+    void sendWeatherJson(Map<?, ?> data, Result result) {
+        if (currentNode == null || messageApi == null) {
+            result.success(WearableErrorManager.createError(
+                    currentNode == null ? WearableErrorManager.CODE_NO_DEVICE : WearableErrorManager.CODE_SDK_ERROR,
+                    null,
+                    null
+            ));
+            return;
+        }
+        if (data == null || data.isEmpty()) {
+            result.success(WearableErrorManager.createParamError("天气数据"));
+            return;
+        }
+        sendBytes(currentNode.id, encodeWeatherJson(data), COALESCE_PAYLOAD, result::success);
+    }
+
+    byte[] encodeWeatherJson(Map<?, ?> data) {
+        return jsonWriter.write(data);
+    }
+
+    /**
+     * 多城市天气一次发送到当前设备：超过单条消息大小时走分片传输，整体作为一次传输送达
+     */
+    void sendForecastBundle(List<Map<String, Object>> cities, ResponseCallback onDone) {
+        if (nodeApi == null || messageApi == null) {
+            onDone.onResponse(WearableErrorManager.createError(
+                    WearableErrorManager.CODE_SDK_ERROR,
+                    null,
+                    null
+            ));
+            return;
+        }
+        if (cities == null || cities.isEmpty()) {
+            onDone.onResponse(WearableErrorManager.createParamError("天气数据"));
+            return;
+        }
+
+        byte[] bundle = jsonWriter.writeBundle(cities);
+        Map<String, Object> info = new HashMap<>();
+        info.put("cities", cities.size());
+        info.put("bytes", bundle.length);
+        refreshConnectedNodes(error -> {
+            if (error != null) {
+                onDone.onResponse(error);
+                return;
+            }
+            if (bundle.length <= ChunkedTransfer.DEFAULT_CHUNK_SIZE) {
+                sendBytes(currentNode.id, bundle, COALESCE_BUNDLE, response -> onDone.onResponse(
+                        Boolean.TRUE.equals(response.get("success"))
+                                ? WearableErrorManager.createSuccess("多城市天气已发送", info)
+                                : response
+                ));
+                return;
+            }
+            startTransfer(currentNode.id, bundle, ChunkedTransfer.DEFAULT_CHUNK_SIZE, transferError -> onDone.onResponse(
+                    transferError == null
+                            ? WearableErrorManager.createSuccess("多城市天气已发送", info)
+                            : transferError
+            ));
+        });
+    }
+
+    /**
+     * 二进制通道的批量数据，直接作为消息体发送，不经过字符串转换
+     */
+    void sendPayloadBytes(byte[] payload, ResponseCallback onDone) {
+        if (currentNode == null || messageApi == null) {
+            onDone.onResponse(WearableErrorManager.createError(
+                    currentNode == null ? WearableErrorManager.CODE_NO_DEVICE : WearableErrorManager.CODE_SDK_ERROR,
+                    null,
+                    null
+            ));
+            return;
+        }
+        if (payload == null || payload.length == 0) {
+            onDone.onResponse(WearableErrorManager.createParamError("消息内容"));
+            return;
+        }
+        sendBytes(currentNode.id, payload, COALESCE_PAYLOAD, onDone);
+    }
+
+    /**
+     * 以批量优先级排队发送，coalesceKey 不为空时替换尚未发送的同类数据
+     */
+    private void sendBytes(String nodeId, byte[] bytes, String coalesceKey, ResponseCallback onDone) {
+        boolean queued = outboundQueue.enqueue(
+                nodeId,
+                OutboundQueue.PRIORITY_BULK,
+                coalesceKey,
+                WearableErrorManager.CODE_MESSAGE_ERROR,
+                () -> messageApi.sendMessage(nodeId, bytes),
+                (outcome, value, e, attempts) -> {
+                    if (outcome == OutboundQueue.RESULT_SENT) {
+                        metrics.recordSent(bytes.length);
+                        if (COALESCE_PAYLOAD.equals(coalesceKey)) {
+                            pendingPushes.remove(nodeId);
+                        }
+                        onDone.onResponse(RetryPolicy.withStats(WearableErrorManager.createSuccess("消息发送成功", null), attempts));
+                    } else if (outcome == OutboundQueue.RESULT_SUPERSEDED) {
+                        onDone.onResponse(WearableErrorManager.createError(WearableErrorManager.CODE_SUPERSEDED, null, null));
+                    } else {
+                        stateCache.invalidateNode(nodeId);
+                        if (COALESCE_PAYLOAD.equals(coalesceKey)) {
+                            pendingPushes.put(nodeId, () -> sendBytes(nodeId, bytes, coalesceKey, IGNORE_RESPONSE));
+                        }
+                        onDone.onResponse(RetryPolicy.withStats(WearableErrorManager.createError(
+                                WearableErrorManager.CODE_MESSAGE_ERROR,
+                                e,
+                                null
+                        ), attempts));
+                    }
+                }
+        );
+        if (!queued) {
+            onDone.onResponse(createQueueFullError(nodeId));
+        }
+    }
+
+    private Map<String, Object> createQueueFullError(String nodeId) {
+        return WearableErrorManager.createError(
+                WearableErrorManager.CODE_QUEUE_FULL,
+                null,
+                Collections.singletonMap("depth", outboundQueue.getDepth(nodeId))
+        );
+    }
+
+    void sendWeatherPayload(
+            Map<String, Object> data,
+            Boolean compress,
+            Boolean delta,
+            Boolean chunked,
+            Number chunkSize,
+            Result result
+    ) {
+        if (!ensureNode(result)) {
+            return;
+        }
+        if (messageApi == null) {
+            result.success(WearableErrorManager.createError(
+                    WearableErrorManager.CODE_SDK_ERROR,
+                    null,
+                    null
+            ));
+            return;
+        }
+        if (data == null || data.isEmpty()) {
+            result.success(WearableErrorManager.createParamError("天气数据"));
+            return;
+        }
+
+        deliverWeatherPayload(
+                currentNode.id,
+                data,
+                compress == null || compress,
+                Boolean.TRUE.equals(delta),
+                Boolean.TRUE.equals(chunked),
+                chunkSize != null ? chunkSize.intValue() : ChunkedTransfer.DEFAULT_CHUNK_SIZE,
+                result::success
+        );
+    }
+
+    /**
+     * 同时向所有已连接设备推送天气数据，各设备独立计算增量与分片，返回按设备汇总的结果
+     */
+    void sendWeatherPayloadToAll(
+            Map<String, Object> data,
+            Boolean compress,
+            Boolean delta,
+            Boolean chunked,
+            Number chunkSize,
+            Result result
+    ) {
+        if (nodeApi == null || messageApi == null) {
+            result.success(WearableErrorManager.createError(
+                    WearableErrorManager.CODE_SDK_ERROR,
+                    null,
+                    null
+            ));
+            return;
+        }
+        if (data == null || data.isEmpty()) {
+            result.success(WearableErrorManager.createParamError("天气数据"));
+            return;
+        }
+
+        refreshConnectedNodes(error -> {
+            if (error != null) {
+                result.success(error);
+                return;
+            }
+            List<Node> nodes = new ArrayList<>(connectedNodes.values());
+            Map<String, Object> perNode = new HashMap<>();
+            int[] pending = {nodes.size()};
+            int[] delivered = {0};
+            for (Node node : nodes) {
+                // 每台设备都要能收到分片确认和 mismatch 回复，监听注册失败时仍尝试推送
+                ensureListener(node.id, ignored -> deliverWeatherPayload(
+                        node.id,
+                        data,
+                        compress == null || compress,
+                        Boolean.TRUE.equals(delta),
+                        Boolean.TRUE.equals(chunked),
+                        chunkSize != null ? chunkSize.intValue() : ChunkedTransfer.DEFAULT_CHUNK_SIZE,
+                        response -> {
+                            perNode.put(node.id, response);
+                            if (Boolean.TRUE.equals(response.get("success"))) {
+                                delivered[0]++;
+                            }
+                            if (--pending[0] > 0) {
+                                return;
+                            }
+                            if (delivered[0] == nodes.size()) {
+                                result.success(WearableErrorManager.createSuccess("天气数据已发送到全部设备", perNode));
+                            } else {
+                                result.success(WearableErrorManager.createError(
+                                        WearableErrorManager.CODE_MESSAGE_ERROR,
+                                        null,
+                                        perNode,
+                                        "部分设备发送失败（" + delivered[0] + "/" + nodes.size() + "）",
+                                        null,
+                                        null
+                                ));
+                            }
+                        }
+                ));
+            }
+        });
+    }
+
+    private void deliverWeatherPayload(
+            String nodeId,
+            Map<String, Object> data,
+            boolean compress,
+            boolean delta,
+            boolean chunked,
+            int chunkLimit,
+            ResponseCallback callback
+    ) {
+        WeatherSyncState.Snapshot base = delta ? syncState.load(nodeId) : null;
+        long sequence = base != null ? base.sequence + 1 : 1;
+        WeatherSyncState.Snapshot next = WeatherSyncState.fingerprint(data, sequence);
+
+        byte[] frame;
+        if (base != null && next != null) {
+            frame = WeatherPayloadEncoder.encodePatch(data, base, next, compress);
+            if (frame == null) {
+                callback.onResponse(WearableErrorManager.createSuccess("天气数据无变化", buildPayloadInfo(0, true)));
+                return;
+            }
+        } else {
+            frame = WeatherPayloadEncoder.encode(data, sequence, compress);
+        }
+
+        boolean patch = base != null && next != null;
+        if (chunked && frame.length > chunkLimit) {
+            startTransfer(nodeId, frame, chunkLimit, error -> {
+                if (error == null) {
+                    onPayloadDelivered(nodeId, data, next);
+                    callback.onResponse(WearableErrorManager.createSuccess("天气数据发送成功", buildPayloadInfo(frame.length, patch)));
+                } else {
+                    pendingPushes.put(nodeId, () -> pushFullSnapshot(nodeId, data));
+                    callback.onResponse(error);
+                }
+            });
+            return;
+        }
+
+        boolean queued = outboundQueue.enqueue(
+                nodeId,
+                OutboundQueue.PRIORITY_BULK,
+                COALESCE_WEATHER,
+                WearableErrorManager.CODE_MESSAGE_ERROR,
+                () -> messageApi.sendMessage(nodeId, frame),
+                (outcome, value, e, attempts) -> {
+                    if (outcome == OutboundQueue.RESULT_SENT) {
+                        metrics.recordSent(frame.length);
+                        onPayloadDelivered(nodeId, data, next);
+                        callback.onResponse(RetryPolicy.withStats(WearableErrorManager.createSuccess("天气数据发送成功", buildPayloadInfo(frame.length, patch)), attempts));
+                    } else if (outcome == OutboundQueue.RESULT_SUPERSEDED) {
+                        // 被替换的帧没有送达，不更新增量基准
+                        callback.onResponse(WearableErrorManager.createError(
+                                WearableErrorManager.CODE_SUPERSEDED,
+                                null,
+                                buildPayloadInfo(0, patch)
+                        ));
+                    } else {
+                        stateCache.invalidateNode(nodeId);
+                        pendingPushes.put(nodeId, () -> pushFullSnapshot(nodeId, data));
+                        callback.onResponse(RetryPolicy.withStats(WearableErrorManager.createError(
+                                WearableErrorManager.CODE_MESSAGE_ERROR,
+                                e,
+                                null
+                        ), attempts));
+                    }
+                }
+        );
+        if (!queued) {
+            callback.onResponse(createQueueFullError(nodeId));
+        }
+    }
+
+    interface ResponseCallback {
+        void onResponse(Map<String, Object> response);
+    }
+
+    /**
+     * 分片传输依赖手表回复的 ack 推进，先确保目标设备上有监听；注册失败时直接失败，不空等重试耗尽
+     */
+    private void startTransfer(String nodeId, byte[] frame, int chunkSize, TransferCallback callback) {
+        ensureListener(nodeId, e -> {
+            if (e != null) {
+                callback.onFinished(WearableErrorManager.createError(
+                        WearableErrorManager.CODE_LISTEN_ERROR,
+                        e,
+                        null
+                ));
+                return;
+            }
+            launchTransfer(nodeId, frame, chunkSize, callback);
+        });
+    }
+
+    private void launchTransfer(String nodeId, byte[] frame, int chunkSize, TransferCallback callback) {
+        int transferId = nextTransferId++;
+        ChunkedTransfer transfer = new ChunkedTransfer(
+                transferId,
+                nodeId,
+                frame,
+                chunkSize,
+                messageApi,
+                mainHandler,
+                new ChunkedTransfer.Listener() {
+                    @Override
+                    public void onProgress(ChunkedTransfer transfer) {
+                        emitTransferProgress(transfer);
+                    }
+
+                    @Override
+                    public void onFinished(ChunkedTransfer transfer, Exception error) {
+                        transfers.remove(transfer.transferId);
+                        if (ChunkedTransfer.STATE_COMPLETED.equals(transfer.getState())) {
+                            metrics.recordSent(frame.length);
+                            callback.onFinished(null);
+                        } else {
+                            callback.onFinished(WearableErrorManager.createError(
+                                    WearableErrorManager.CODE_TRANSFER_FAILED,
+                                    error,
+                                    buildTransferData(transfer)
+                            ));
+                        }
+                    }
+                }
+        );
+        transfers.put(transferId, transfer);
+        transfer.start();
+    }
+
+    private void onTransferAck(String message) {
+        // 格式：ack:<传输编号>:<下一个期望序号>
+        String[] parts = message.trim().split(":");
+        if (parts.length != 3) {
+            return;
+        }
+        try {
+            ChunkedTransfer transfer = transfers.get(Integer.parseInt(parts[1]));
+            if (transfer != null) {
+                transfer.onAck(Integer.parseInt(parts[2]));
+            }
+        } catch (NumberFormatException ignored) {
+            // 忽略格式错误的确认消息
+        }
+    }
+
+    private void resumeTransfers() {
+        for (ChunkedTransfer transfer : new ArrayList<>(transfers.values())) {
+            transfer.resume();
+        }
+    }
+
+    private void onServiceRestored() {
+        if (!serviceLost) {
+            // 首次注册时的回调，会话本身没有断开
+            resumeTransfers();
+            return;
+        }
+        mainHandler.removeCallbacks(resyncTask);
+        mainHandler.postDelayed(resyncTask, RESYNC_SETTLE_MS);
+    }
+
+    /**
+     * 服务重连后恢复会话：重新确认设备、重新注册消息监听，再续传分片并补发未送达的推送
+     */
+    private void resyncAfterReconnect(int attempt) {
+        if (!ready || nodeApi == null || messageApi == null) {
+            return;
+        }
+        stateCache.invalidateAll();
+        refreshConnectedNodes(error -> {
+            if (error != null) {
+                if (attempt < RESYNC_MAX_ATTEMPTS) {
+                    mainHandler.postDelayed(() -> resyncAfterReconnect(attempt + 1), RESYNC_RETRY_DELAY_MS);
+                }
+                return;
+            }
+            serviceLost = false;
+            restoreListener(() -> {
+                resumeTransfers();
+                flushPendingPushes();
+            });
+        });
+    }
+
+    /**
+     * 旧会话上的监听随服务重启失效，在仍连接的设备和当前设备上重新注册，
+     * 以继续接收握手回复、分片确认、拉取请求和转发给 Dart 的消息
+     */
+    private void restoreListener(Runnable onDone) {
+        List<String> nodeIds = new ArrayList<>();
+        for (String nodeId : listenerNodes) {
+            if (connectedNodes.containsKey(nodeId)) {
+                nodeIds.add(nodeId);
+            }
+        }
+        if (!nodeIds.contains(currentNode.id)) {
+            nodeIds.add(currentNode.id);
+        }
+        if (handshakeSession != null && !nodeIds.contains(handshakeSession.nodeId)) {
+            nodeIds.add(handshakeSession.nodeId);
+        }
+        listenerNodes.clear();
+        ensureListeners(nodeIds, e -> {
+            if (e != null) {
+                // 监听恢复失败时如实反映状态，Dart 可再次调用 startListening
+                listening = false;
+            }
+            onDone.run();
+        });
+    }
+
+    private void flushPendingPushes() {
+        List<Runnable> flush = new ArrayList<>();
+        for (String nodeId : new ArrayList<>(pendingPushes.keySet())) {
+            if (connectedNodes.containsKey(nodeId)) {
+                flush.add(pendingPushes.remove(nodeId));
+            }
+        }
+        for (Runnable push : flush) {
+            push.run();
+        }
+    }
+
+    private void emitTransferProgress(ChunkedTransfer transfer) {
+        Map<String, Object> payload = buildTransferData(transfer);
+        invokeChannel("onTransferProgress", payload);
+    }
+
+    private static Map<String, Object> buildTransferData(ChunkedTransfer transfer) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("transferId", transfer.transferId);
+        map.put("nodeId", transfer.nodeId);
+        map.put("acked", transfer.getAcked());
+        map.put("total", transfer.getTotalChunks());
+        map.put("state", transfer.getState());
+        return map;
+    }
+
+    private interface TransferCallback {
+        void onFinished(Map<String, Object> error);
+    }
+
+    private void onPayloadDelivered(String nodeId, Map<String, Object> data, WeatherSyncState.Snapshot snapshot) {
+        lastPayloads.put(nodeId, data);
+        pendingPushes.remove(nodeId);
+        if (snapshot != null) {
+            syncState.save(nodeId, snapshot);
+        } else {
+            syncState.reset(nodeId);
+        }
+    }
+
+    /**
+     * 手表报告快照序号不一致：丢弃增量基准，并用最近一次数据补发完整快照
+     */
+    private void onSyncMismatch(String nodeId) {
+        syncState.reset(nodeId);
+        Map<String, Object> data = lastPayloads.get(nodeId);
+        if (data != null) {
+            pushFullSnapshot(nodeId, data);
+        }
+    }
+
+    /**
+     * 手表拉取数据：在网络线程池读取预报（缓存可用时不等待网络），回到主线程按手表已有的快照应答
+     */
+    private void onPullRequest(String nodeId, String message) {
+        String[] parts = message.trim().split(":", 4);
+        long version = parseSequence(parts[1]);
+        String days = parts.length > 2 ? parts[2] : null;
+        String location = parts.length > 3 ? parts[3] : null;
+        QWeatherClient client = QWeatherClient.getInstance(context);
+        client.execute(() -> {
+            Map<String, Object> data;
+            try {
+                data = client.fetchPullPayload(QWeatherConfig.load(context), days, location);
+            } catch (IOException e) {
+                data = null;
+            }
+            final Map<String, Object> reply = data;
+            mainHandler.post(() -> answerPull(nodeId, version, reply));
+        });
+    }
+
+    /**
+     * 手表持有的序号与本机记录一致时回复增量或 notmodified，否则回复完整快照
+     */
+    private void answerPull(String nodeId, long version, Map<String, Object> data) {
+        if (messageApi == null) {
+            return;
+        }
+        if (data == null) {
+            sendControl(nodeId, PULL_FAILED_BYTES);
+            return;
+        }
+        WeatherSyncState.Snapshot base = syncState.load(nodeId);
+        if (base != null && base.sequence != version) {
+            base = null;
+        }
+        long sequence = base != null ? base.sequence + 1 : 1;
+        WeatherSyncState.Snapshot next = WeatherSyncState.fingerprint(data, sequence);
+
+        byte[] frame;
+        if (base != null && next != null) {
+            frame = WeatherPayloadEncoder.encodePatch(data, base, next, true);
+            if (frame == null) {
+                sendControl(nodeId, (PULL_NOT_MODIFIED + version).getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+        } else {
+            frame = WeatherPayloadEncoder.encode(data, sequence, true);
+        }
+        outboundQueue.enqueue(
+                nodeId,
+                OutboundQueue.PRIORITY_BULK,
+                COALESCE_WEATHER,
+                WearableErrorManager.CODE_MESSAGE_ERROR,
+                () -> messageApi.sendMessage(nodeId, frame),
+                (outcome, value, e, attempts) -> {
+                    if (outcome == OutboundQueue.RESULT_SENT) {
+                        metrics.recordSent(frame.length);
+                        onPayloadDelivered(nodeId, data, next);
+                    }
+                }
+        );
+    }
+
+    private void sendControl(String nodeId, byte[] bytes) {
+        outboundQueue.enqueue(
+                nodeId,
+                OutboundQueue.PRIORITY_CONTROL,
+                null,
+                null,
+                () -> messageApi.sendMessage(nodeId, bytes),
+                (outcome, value, e, attempts) -> {
+                    if (outcome == OutboundQueue.RESULT_SENT) {
+                        metrics.recordSent(bytes.length);
+                    }
+                }
+        );
+    }
+
+    private static long parseSequence(String text) {
+        try {
+            return Long.parseLong(text.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 不经过 Dart 直接补发完整快照，结果只更新同步状态
+     */
+    private void pushFullSnapshot(String nodeId, Map<String, Object> data) {
+        if (messageApi == null) {
+            return;
+        }
+        syncState.reset(nodeId);
+        WeatherSyncState.Snapshot snapshot = WeatherSyncState.fingerprint(data, 1);
+        byte[] frame = WeatherPayloadEncoder.encode(data, 1, true);
+        outboundQueue.enqueue(
+                nodeId,
+                OutboundQueue.PRIORITY_BULK,
+                COALESCE_WEATHER,
+                WearableErrorManager.CODE_MESSAGE_ERROR,
+                () -> messageApi.sendMessage(nodeId, frame),
+                (outcome, value, e, attempts) -> {
+                    if (outcome == OutboundQueue.RESULT_SENT) {
+                        metrics.recordSent(frame.length);
+                        onPayloadDelivered(nodeId, data, snapshot);
+                    } else if (outcome == OutboundQueue.RESULT_FAILED) {
+                        pendingPushes.put(nodeId, () -> pushFullSnapshot(nodeId, data));
+                    }
+                }
+        );
+    }
+
+    private static Map<String, Object> buildPayloadInfo(int bytes, boolean delta) {
+        Map<String, Object> info = new HashMap<>();
+        info.put("version", WeatherPayloadEncoder.FORMAT_VERSION);
+        info.put("bytes", bytes);
+        info.put("delta", delta);
+        return info;
+    }
+
+    void sendNotification(String title, String message, Result result) {
+        if (!ensureNode(result)) {
+            return;
+        }
+        if (notifyApi == null) {
+            result.success(WearableErrorManager.createError(
+                    WearableErrorManager.CODE_SDK_ERROR,
+                    null,
+                    null
+            ));
+            return;
+        }
+        if (TextUtils.isEmpty(title)) {
+            result.success(WearableErrorManager.createParamError("通知标题"));
+            return;
+        }
+        if (TextUtils.isEmpty(message)) {
+            result.success(WearableErrorManager.createParamError("通知内容"));
+            return;
+        }
+
+        String nodeId = currentNode.id;
+        outboundQueue.enqueue(
+                nodeId,
+                OutboundQueue.PRIORITY_CONTROL,
+                null,
+                WearableErrorManager.CODE_NOTIFY_ERROR,
+                () -> notifyApi.sendNotify(nodeId, title, message),
+                (outcome, status, e, attempts) -> {
+                    if (outcome == OutboundQueue.RESULT_SENT) {
+                        result.success(RetryPolicy.withStats(WearableErrorManager.createSuccess("通知发送成功", Collections.singletonMap("status", String.valueOf(status))), attempts));
+                        return;
+                    }
+                    stateCache.invalidateNode(nodeId);
+                    result.success(RetryPolicy.withStats(WearableErrorManager.createError(
+                            WearableErrorManager.CODE_NOTIFY_ERROR,
+                            e,
+                            null
+                    ), attempts));
+                }
+        );
+    }
+
+    void startListening(Result result) {
+        if (!ensureNode(result)) {
+            return;
+        }
+        if (messageApi == null) {
+            result.success(WearableErrorManager.createError(
+                    WearableErrorManager.CODE_SDK_ERROR,
+                    null,
+                    null
+            ));
+            return;
+        }
+        if (listening && listenerNodes.contains(currentNode.id)) {
+            result.success(WearableErrorManager.createSharedSuccess("已在监听消息", buildListeningData(true)));
+            return;
+        }
+
+        ensureListener(currentNode.id, e -> {
+            if (e != null) {
+                result.success(WearableErrorManager.createError(
+                        WearableErrorManager.CODE_LISTEN_ERROR,
+                        e,
+                        null
+                ));
+                return;
+            }
+            listening = true;
+            result.success(WearableErrorManager.createSharedSuccess("开始监听消息", buildListeningData(true)));
+        });
+    }
+
+    void stopListening(Result result) {
+        if (!ensureNode(result)) {
+            return;
+        }
+        if (messageApi == null) {
+            result.success(WearableErrorManager.createError(
+                    WearableErrorManager.CODE_SDK_ERROR,
+                    null,
+                    null
+            ));
+            return;
+        }
+        if (!listening) {
+            result.success(WearableErrorManager.createSharedSuccess("监听已停止", buildListeningData(false)));
+            return;
+        }
+
+        // 只停止向 Dart 转发，SDK 监听保留用于握手回复和手表拉取
+        listening = false;
+        result.success(WearableErrorManager.createSharedSuccess("停止监听消息", buildListeningData(false)));
+    }
+
+    void checkWearableApp(Result result) {
+        PackageManager packageManager = context.getPackageManager();
+        try {
+            packageManager.getPackageInfo("com.mi.health", 0);
+            result.success(WearableErrorManager.createSharedSuccess(
+                    "小米运动健康已安装",
+                    INSTALLED_DATA
+            ));
+        } catch (PackageManager.NameNotFoundException e) {
+            // 检查另一个包名 com.xiaomi.wearable
+            try {
+                packageManager.getPackageInfo("com.xiaomi.wearable", 0);
+                result.success(WearableErrorManager.createSharedSuccess(
+                        "小米运动健康已安装",
+                        INSTALLED_DATA
+                ));
+            } catch (PackageManager.NameNotFoundException e2) {
+                result.success(WearableErrorManager.createError(
+                        WearableErrorManager.CODE_APP_NOT_INSTALLED,
+                        NOT_INSTALLED_DATA
+                ));
+            }
+        } catch (Exception e) {
+            result.success(WearableErrorManager.createError(
+                    WearableErrorManager.CODE_CHECK_FAILED,
+                    e,
+                    null
+            ));
+        }
+    }
+
+    void checkWearApp(Result result) {
+        if (!ensureNode(result)) {
+            return;
+        }
+        if (authApi == null) {
+            result.success(WearableErrorManager.createError(
+                    WearableErrorManager.CODE_SDK_ERROR,
+                    null,
+                    null
+            ));
+            return;
+        }
+
+        String nodeId = currentNode.id;
+        singleFlight.run(FLIGHT_CHECK_WEAR_APP + nodeId, result::success, done -> checkWearAppForNode(nodeId, done));
+    }
+
+    private void checkWearAppForNode(String nodeId, ResponseCallback result) {
+        if (stateCache.isPermissionGranted(nodeId, Permission.DEVICE_MANAGER.getName())) {
+            checkWearAppInstalled(nodeId, result);
+            return;
+        }
+
+        Permission[] permissions = new Permission[]{Permission.DEVICE_MANAGER};
+        authApi.checkPermissions(nodeId, permissions)
+                .addOnSuccessListener(mainExecutor, results -> {
+                    boolean granted = results != null && results.length > 0 && results[0];
+                    if (!granted) {
+                        result.onResponse(WearableErrorManager.createError(
+                                WearableErrorManager.CODE_PERMISSION_REQUIRED,
+                                null,
+                                null
+                        ));
+                        return;
+                    }
+                    stateCache.putGrantedPermissions(
+                            nodeId,
+                            Collections.singletonList(Permission.DEVICE_MANAGER.getName())
+                    );
+                    checkWearAppInstalled(nodeId, result);
+                })
+                .addOnFailureListener(mainExecutor, e -> {
+                    stateCache.invalidateNode(nodeId);
+                    result.onResponse(WearableErrorManager.createError(
+                            WearableErrorManager.CODE_PERMISSION_CHECK_FAILED,
+                            e,
+                            null
+                    ));
+                });
+    }
+
+    private void checkWearAppInstalled(String nodeId, ResponseCallback result) {
+        if (stateCache.isWearAppInstalled(nodeId)) {
+            result.onResponse(WearableErrorManager.createSharedSuccess(
+                    "快应用已安装",
+                    INSTALLED_DATA
+            ));
+            return;
+        }
+
+        nodeApi.isWearAppInstalled(nodeId)
+                .addOnSuccessListener(mainExecutor, installed -> {
+                    if (installed) {
+                        stateCache.putWearAppInstalled(nodeId);
+                        result.onResponse(WearableErrorManager.createSharedSuccess(
+                                "快应用已安装",
+                                INSTALLED_DATA
+                        ));
+                    } else {
+                        result.onResponse(WearableErrorManager.createError(
+                                WearableErrorManager.CODE_WEAR_APP_NOT_INSTALLED,
+                                NOT_INSTALLED_DATA
+                        ));
+                    }
+                })
+                .addOnFailureListener(mainExecutor, e -> {
+                    stateCache.invalidateNode(nodeId);
+                    result.onResponse(WearableErrorManager.createError(
+                            WearableErrorManager.CODE_CHECK_FAILED,
+                            e,
+                            null
+                    ));
+                });
+    }
+
+    void launchWearApp(String path, Result result) {
+        if (!ensureNode(result)) {
+            return;
+        }
+        String nodeId = currentNode.id;
+        String launchPath = TextUtils.isEmpty(path) ? "/" : path;
+        nodeApi.launchWearApp(nodeId, launchPath)
+                .addOnSuccessListener(mainExecutor, unused ->
+                        result.success(WearableErrorManager.createSuccess("快应用启动成功", Collections.singletonMap("path", launchPath))))
+                .addOnFailureListener(mainExecutor, e -> {
+                    stateCache.invalidateNode(nodeId);
+                    result.success(WearableErrorManager.createError(
+                            WearableErrorManager.CODE_LAUNCH_FAILED,
+                            e,
+                            null
+                    ));
+                });
+    }
+
+    /**
+     * 后台同步入口：刷新设备后按同步模式发送，兼容模式直接发送，否则走握手流程
+     *
+     * 后台握手不启动快应用，避免每个周期把手表应用拉到前台；快应用正在运行时回复 ready 后发送，
+     * 否则本周期以 HANDSHAKE_TIMEOUT 结束
+     */
+    void syncInBackground(byte[] payload, boolean compatibilityMode, ResponseCallback onDone) {
+        if (!ready) {
+            pendingUntilReady.add(() -> syncInBackground(payload, compatibilityMode, onDone));
+            return;
+        }
+        if (nodeApi == null || messageApi == null) {
+            onDone.onResponse(WearableErrorManager.createError(
+                    WearableErrorManager.CODE_SDK_ERROR,
+                    null,
+                    null
+            ));
+            return;
+        }
+        refreshConnectedNodes(error -> {
+            if (error != null) {
+                onDone.onResponse(error);
+                return;
+            }
+            if (!compatibilityMode) {
+                syncWithHandshake(payload, BACKGROUND_PROBE_TIMEOUT_MS, false, onDone);
+                return;
+            }
+            sendBytes(currentNode.id, payload, COALESCE_PAYLOAD, onDone);
+        });
+    }
+
+    /**
+     * 原生握手同步：启动快应用后按退避间隔发送 start，收到 ready 后立即发送数据，
+     * 整个流程只向 Dart 返回一次结果
+     */
+    void syncWithHandshake(byte[] payload, Number timeoutMs, ResponseCallback onDone) {
+        syncWithHandshake(payload, timeoutMs, true, onDone);
+    }
+
+    /**
+     * launch 为 false 时只发送探测，不启动快应用，也不计入耗时模型
+     */
+    private void syncWithHandshake(byte[] payload, Number timeoutMs, boolean launch, ResponseCallback onDone) {
+        if (currentNode == null) {
+            onDone.onResponse(WearableErrorManager.createError(
+                    WearableErrorManager.CODE_NO_DEVICE,
+                    null,
+                    null
+            ));
+            return;
+        }
+        if (messageApi == null || nodeApi == null) {
+            onDone.onResponse(WearableErrorManager.createError(
+                    WearableErrorManager.CODE_SDK_ERROR,
+                    null,
+                    null
+            ));
+            return;
+        }
+        if (payload == null || payload.length == 0) {
+            onDone.onResponse(WearableErrorManager.createParamError("同步数据"));
+            return;
+        }
+        if (handshakeSession != null) {
+            onDone.onResponse(WearableErrorManager.createError(
+                    WearableErrorManager.CODE_SYNC_IN_PROGRESS,
+                    null,
+                    null
+            ));
+            return;
+        }
+
+        // Dart 显式指定的超时优先，否则使用按设备推算的值
+        HandshakeSession session = new HandshakeSession(
+                currentNode.id,
+                payload,
+                timingModel.timingFor(currentNode.id, DEFAULT_HANDSHAKE_TIMING),
+                timeoutMs != null && timeoutMs.longValue() > 0 ? timeoutMs.longValue() : 0,
+                launch,
+                onDone
+        );
+        handshakeSession = session;
+        mainHandler.postDelayed(session.timeoutTask, session.timeoutMs);
+
+        ensureListener(session.nodeId, e -> {
+            if (e != null) {
+                finishHandshake(session, WearableErrorManager.createError(
+                        WearableErrorManager.CODE_LISTEN_ERROR,
+                        e,
+                        null
+                ));
+            } else if (handshakeSession == session && session.launch) {
+                launchForHandshake(session);
+            } else if (handshakeSession == session) {
+                sendHandshakeProbe(session);
+            }
+        });
+    }
+
+    private void launchForHandshake(HandshakeSession session) {
+        // 启动失败不中断流程：快应用可能已在前台运行，由探测结果决定成败
+        session.launchedAt = SystemClock.elapsedRealtime();
+        nodeApi.launchWearApp(session.nodeId, "/")
+                .addOnSuccessListener(mainExecutor, unused -> sendHandshakeProbe(session))
+                .addOnFailureListener(mainExecutor, e -> sendHandshakeProbe(session));
+    }
+
+    private void sendHandshakeProbe(HandshakeSession session) {
+        if (handshakeSession != session || session.readyReceived) {
+            return;
+        }
+        session.attempts++;
+        long[] sentAt = new long[1];
+        // 探测包走控制优先级，上一个探测仍在排队时直接替换
+        outboundQueue.enqueue(
+                session.nodeId,
+                OutboundQueue.PRIORITY_CONTROL,
+                COALESCE_PROBE,
+                null,
+                () -> {
+                    sentAt[0] = SystemClock.elapsedRealtime();
+                    return messageApi.sendMessage(session.nodeId, HANDSHAKE_START_BYTES);
+                },
+                (outcome, value, e, attempts) -> {
+                    if (outcome == OutboundQueue.RESULT_SENT) {
+                        metrics.recordSent(HANDSHAKE_START_BYTES.length);
+                        timingModel.recordAck(session.nodeId, SystemClock.elapsedRealtime() - sentAt[0]);
+                    }
+                }
+        );
+        mainHandler.postDelayed(session.probeTask, session.nextInterval());
+    }
+
+    private void onHandshakeReady(String nodeId) {
+        HandshakeSession session = handshakeSession;
+        if (session == null || session.readyReceived || !session.nodeId.equals(nodeId)) {
+            return;
+        }
+        session.readyReceived = true;
+        mainHandler.removeCallbacks(session.probeTask);
+        if (session.launch) {
+            timingModel.recordReady(session.nodeId, SystemClock.elapsedRealtime() - session.launchedAt);
+        }
+
+        boolean queued = outboundQueue.enqueue(
+                session.nodeId,
+                OutboundQueue.PRIORITY_BULK,
+                COALESCE_HANDSHAKE,
+                WearableErrorManager.CODE_MESSAGE_ERROR,
+                () -> messageApi.sendMessage(session.nodeId, session.payload),
+                (outcome, value, e, attempts) -> {
+                    if (outcome == OutboundQueue.RESULT_SENT) {
+                        metrics.recordSent(session.payload.length);
+                        finishHandshake(session, RetryPolicy.withStats(WearableErrorManager.createSuccess(
+                                "天气数据同步成功",
+                                session.buildStats()
+                        ), attempts));
+                    } else if (outcome == OutboundQueue.RESULT_SUPERSEDED) {
+                        finishHandshake(session, WearableErrorManager.createError(
+                                WearableErrorManager.CODE_SUPERSEDED,
+                                null,
+                                session.buildStats()
+                        ));
+                    } else {
+                        stateCache.invalidateNode(session.nodeId);
+                        finishHandshake(session, RetryPolicy.withStats(WearableErrorManager.createError(
+                                WearableErrorManager.CODE_MESSAGE_ERROR,
+                                e,
+                                session.buildStats()
+                        ), attempts));
+                    }
+                }
+        );
+        if (!queued) {
+            finishHandshake(session, createQueueFullError(session.nodeId));
+        }
+    }
+
+    private void onHandshakeTimeout(HandshakeSession session) {
+        if (handshakeSession != session || session.readyReceived) {
+            return;
+        }
+        if (session.launch && !session.explicitTimeout) {
+            // 调用方指定的超时可能短于设备真实耗时，不计入模型
+            timingModel.recordTimeout(session.nodeId);
+        }
+        finishHandshake(session, WearableErrorManager.createError(
+                WearableErrorManager.CODE_HANDSHAKE_TIMEOUT,
+                session.buildStats()
+        ));
+    }
+
+    private void finishHandshake(HandshakeSession session, Map<String, Object> response) {
+        if (handshakeSession != session) {
+            return;
+        }
+        handshakeSession = null;
+        session.cancelTimers();
+        timingModel.persist();
+        if (Boolean.TRUE.equals(response.get("success"))) {
+            pendingPushes.remove(session.nodeId);
+        } else if (serviceLost) {
+            // 只有服务中断导致的失败才在恢复后重做握手，其他失败不自动拉起手表应用
+            pendingPushes.put(session.nodeId, () -> {
+                if (handshakeSession == null) {
+                    syncWithHandshake(
+                            session.payload,
+                            session.launch ? null : BACKGROUND_PROBE_TIMEOUT_MS,
+                            session.launch,
+                            IGNORE_RESPONSE
+                    );
+                }
+            });
+        }
+        session.onDone.onResponse(response);
+    }
+
+    /**
+     * 单次握手同步的状态，仅在主线程访问
+     */
+    private final class HandshakeSession {
+        final String nodeId;
+        final byte[] payload;
+        final HandshakeTimingModel.Timing timing;
+        final long timeoutMs;
+        final boolean explicitTimeout;
+        final boolean launch;
+        final ResponseCallback onDone;
+        final long startedAt = SystemClock.elapsedRealtime();
+        final Runnable probeTask = () -> sendHandshakeProbe(this);
+        final Runnable timeoutTask = () -> onHandshakeTimeout(this);
+
+        long launchedAt = startedAt;
+        long interval;
+        int attempts;
+        boolean readyReceived;
+
+        /**
+         * explicitTimeoutMs 为 0 时使用 timing 推算的超时
+         */
+        HandshakeSession(
+                String nodeId,
+                byte[] payload,
+                HandshakeTimingModel.Timing timing,
+                long explicitTimeoutMs,
+                boolean launch,
+                ResponseCallback onDone
+        ) {
+            this.nodeId = nodeId;
+            this.payload = payload;
+            this.timing = timing;
+            this.explicitTimeout = explicitTimeoutMs > 0;
+            this.timeoutMs = explicitTimeout ? explicitTimeoutMs : timing.timeoutMs;
+            this.launch = launch;
+            this.onDone = onDone;
+            this.interval = timing.initialIntervalMs;
+        }
+
+        long nextInterval() {
+            long current = interval;
+            interval = Math.min((long) (interval * HANDSHAKE_BACKOFF_FACTOR), timing.maxIntervalMs);
+            return current;
+        }
+
+        void cancelTimers() {
+            mainHandler.removeCallbacks(probeTask);
+            mainHandler.removeCallbacks(timeoutTask);
+        }
+
+        Map<String, Object> buildStats() {
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("attempts", attempts);
+            stats.put("elapsedMs", SystemClock.elapsedRealtime() - startedAt);
+            stats.put("timeoutMs", timeoutMs);
+            stats.put("adaptive", timing.learned);
+            return stats;
+        }
+    }
+
+    private boolean ensureNode(Result result) {
+        if (currentNode != null) {
+            return true;
+        }
+        result.success(WearableErrorManager.createError(
+                WearableErrorManager.CODE_NO_DEVICE,
+                null,
+                null
+        ));
+        return false;
+    }
+
+    private void invokeChannel(String method, Object arguments) {
+        mainHandler.post(() -> emitToChannel(method, arguments));
+    }
+
+    private void emitToChannel(String method, Object arguments) {
+        if (channel != null) {
+            channel.invokeMethod(method, arguments);
+        }
+    }
+
+    private void emitServiceStatus(boolean connected) {
+        eventBatcher.setServiceStatus(connected);
+    }
+
+    private Map<String, Object> buildNodeMap(Node node) {
+        Map<String, Object> cached = nodeMaps.get(node.id);
+        if (cached != null && TextUtils.equals((String) cached.get("name"), node.name)) {
+            return cached;
+        }
+        cached = WearableErrorManager.createNodeData(node.id, node.name);
+        nodeMaps.put(node.id, cached);
+        return cached;
+    }
+
+    private Map<String, Object> buildListeningData(boolean listening) {
+        if (listeningData == null || listeningDataNode != currentNode) {
+            listeningDataNode = currentNode;
+            listeningData = createListeningData(true);
+            notListeningData = createListeningData(false);
+        }
+        return listening ? listeningData : notListeningData;
+    }
+
+    private Map<String, Object> createListeningData(boolean listening) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("listening", listening);
+        if (currentNode != null) {
+            map.put("nodeId", currentNode.id);
+            map.put("nodeName", currentNode.name);
+        }
+        return Collections.unmodifiableMap(map);
+    }
+}
@@ -0,0 +1,98 @@
+package com.application.zaona.weather;
+
+import android.os.SystemClock;
+
+import com.xiaomi.xms.wearable.node.Node;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 缓存设备列表、已授予权限和快应用安装状态，减少对小米运动健康服务的重复调用
+ *
+ * 只缓存正向结果（已授权、已安装）：负向结果通常意味着用户正要去处理，必须实时查询。
+ * 服务断开或相关调用失败时由调用方清除缓存。所有方法仅在主线程调用。
+ */
+final class WearableStateCache {
+    private static final long NODES_TTL_MS = 30_000;
+    private static final long PERMISSION_TTL_MS = 10 * 60_000;
+    private static final long INSTALLED_TTL_MS = 5 * 60_000;
+
+    private List<Node> nodes;
+    private long nodesAt;
+
+    private final Map<String, Set<String>> grantedPermissions = new HashMap<>();
+    private final Map<String, Long> permissionsAt = new HashMap<>();
+
+    private final Map<String, Long> installedAt = new HashMap<>();
+
+    /**
+     * 返回未过期的设备列表，没有缓存时返回 null
+     */
+    List<Node> getNodes() {
+        if (nodes == null || isExpired(nodesAt, NODES_TTL_MS)) {
+            return null;
+        }
+        return nodes;
+    }
+
+    void putNodes(List<Node> connected) {
+        nodes = Collections.unmodifiableList(new ArrayList<>(connected));
+        nodesAt = SystemClock.elapsedRealtime();
+    }
+
+    boolean isPermissionGranted(String nodeId, String permission) {
+        Long at = permissionsAt.get(nodeId);
+        if (at == null || isExpired(at, PERMISSION_TTL_MS)) {
+            return false;
+        }
+        Set<String> granted = grantedPermissions.get(nodeId);
+        return granted != null && granted.contains(permission);
+    }
+
+    void putGrantedPermissions(String nodeId, List<String> permissions) {
+        Long at = permissionsAt.get(nodeId);
+        Set<String> granted = grantedPermissions.get(nodeId);
+        if (granted == null || at == null || isExpired(at, PERMISSION_TTL_MS)) {
+            granted = new HashSet<>();
+            grantedPermissions.put(nodeId, granted);
+        }
+        granted.addAll(permissions);
+        permissionsAt.put(nodeId, SystemClock.elapsedRealtime());
+    }
+
+    boolean isWearAppInstalled(String nodeId) {
+        Long at = installedAt.get(nodeId);
+        return at != null && !isExpired(at, INSTALLED_TTL_MS);
+    }
+
+    void putWearAppInstalled(String nodeId) {
+        installedAt.put(nodeId, SystemClock.elapsedRealtime());
+    }
+
+    /**
+     * 设备相关调用失败时清除该设备的缓存，并强制下次重新获取设备列表
+     */
+    void invalidateNode(String nodeId) {
+        nodes = null;
+        grantedPermissions.remove(nodeId);
+        permissionsAt.remove(nodeId);
+        installedAt.remove(nodeId);
+    }
+
+    void invalidateAll() {
+        nodes = null;
+        grantedPermissions.clear();
+        permissionsAt.clear();
+        installedAt.clear();
+    }
+
+    private static boolean isExpired(long at, long ttl) {
+        return SystemClock.elapsedRealtime() - at > ttl;
+    }
+}
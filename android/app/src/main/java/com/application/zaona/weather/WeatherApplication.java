@@ -0,0 +1,70 @@
+package com.application.zaona.weather;
+
+import android.app.ActivityManager;
+import android.app.Application;
+import android.content.Context;
+import android.os.Build;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import io.flutter.embedding.engine.FlutterEngine;
+import io.flutter.embedding.engine.FlutterEngineCache;
+import io.flutter.embedding.engine.dart.DartExecutor;
+
+/**
+ * 应用入口：为界面启动预热 Flutter 引擎，并提前初始化穿戴 SDK
+ *
+ * 后台同步任务拉起进程时不预热引擎，避免无界面时的额外开销。
+ */
+public class WeatherApplication extends Application {
+    static final String ENGINE_ID = "main_engine";
+    private static final String TAG = "WeatherStartup";
+
+    private static long processStartAt;
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        processStartAt = Build.VERSION.SDK_INT >= Build.VERSION_CODES.N
+                ? Process.getStartElapsedRealtime()
+                : SystemClock.elapsedRealtime();
+
+        // SDK 在后台线程创建，与引擎预热并行
+        WearableSdkManager.getInstance(this);
+        if (isForegroundLaunch()) {
+            obtainEngine(this);
+        }
+    }
+
+    /**
+     * 返回缓存的引擎，没有时创建并执行 Dart 入口
+     */
+    static FlutterEngine obtainEngine(Context context) {
+        FlutterEngineCache cache = FlutterEngineCache.getInstance();
+        FlutterEngine engine = cache.get(ENGINE_ID);
+        if (engine == null) {
+            engine = new FlutterEngine(context.getApplicationContext());
+            engine.getPlugins().add(new WearableMessageHandler());
+            engine.getDartExecutor().executeDartEntrypoint(DartExecutor.DartEntrypoint.createDefault());
+            cache.put(ENGINE_ID, engine);
+            logStartupStage("Flutter 引擎已预热");
+        }
+        return engine;
+    }
+
+    /**
+     * 记录从进程启动到某个阶段的耗时，用于衡量冷启动到设备连接的时间
+     */
+    static void logStartupStage(String stage) {
+        if (processStartAt > 0) {
+            Log.i(TAG, stage + "：" + (SystemClock.elapsedRealtime() - processStartAt) + " ms");
+        }
+    }
+
+    private static boolean isForegroundLaunch() {
+        ActivityManager.RunningAppProcessInfo info = new ActivityManager.RunningAppProcessInfo();
+        ActivityManager.getMyMemoryState(info);
+        return info.importance <= ActivityManager.RunningAppProcessInfo.IMPORTANCE_VISIBLE;
+    }
+}
@@ -0,0 +1,227 @@
+package com.application.zaona.weather;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 天气数据的 JSON 序列化：直接按 UTF-8 写入可复用的字节缓冲区，不生成中间字符串
+ *
+ * 顶层只保留手表用到的字段，daily 中每天只保留 WeatherPayloadEncoder 字典里的字段，
+ * fxLink、refer、sources 等不会被写出。输入可以是通道解码出的 Map/List，也可以是 org.json 对象。
+ * 非线程安全，每个使用方持有自己的实例。
+ */
+final class WeatherJsonWriter {
+    private static final int INITIAL_CAPACITY = 4096;
+    private static final List<String> ROOT_FIELDS = Arrays.asList("code", "updateTime", "location", "daily");
+    private static final String DAILY = "daily";
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * 序列化天气数据，返回的数组归调用方所有
+     */
+    byte[] write(Object data) {
+        size = 0;
+        writeObject(data, FieldFilter.ROOT);
+        return Arrays.copyOf(buffer, size);
+    }
+
+    /**
+     * 多城市数据包 {"cities":[...]}，每个城市按单城市数据的规则过滤
+     */
+    byte[] writeBundle(List<?> cities) {
+        size = 0;
+        writeAscii("{\"cities\":");
+        writeValue(cities, FieldFilter.ROOT);
+        writeByte('}');
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private enum FieldFilter {
+        ROOT, DAY, NONE;
+
+        boolean accepts(String key) {
+            switch (this) {
+                case ROOT:
+                    return ROOT_FIELDS.contains(key);
+                case DAY:
+                    return WeatherPayloadEncoder.isDayField(key);
+                default:
+                    return true;
+            }
+        }
+
+        FieldFilter childOf(String key) {
+            return this == ROOT && DAILY.equals(key) ? DAY : NONE;
+        }
+    }
+
+    private void writeValue(Object value, FieldFilter filter) {
+        if (value instanceof Map || value instanceof JSONObject) {
+            writeObject(value, filter);
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            writeByte('[');
+            for (int i = 0; i < list.size(); i++) {
+                if (i > 0) {
+                    writeByte(',');
+                }
+                writeValue(list.get(i), filter);
+            }
+            writeByte(']');
+        } else if (value instanceof JSONArray) {
+            JSONArray array = (JSONArray) value;
+            writeByte('[');
+            for (int i = 0; i < array.length(); i++) {
+                if (i > 0) {
+                    writeByte(',');
+                }
+                writeValue(array.opt(i), filter);
+            }
+            writeByte(']');
+        } else if (value instanceof String) {
+            writeString((String) value);
+        } else if (value instanceof Boolean) {
+            writeAscii(value.toString());
+        } else if (value instanceof Number && isFinite((Number) value)) {
+            writeAscii(value.toString());
+        } else {
+            writeAscii("null");
+        }
+    }
+
+    /**
+     * 列表元素沿用列表所在字段的过滤规则，因此 daily 中的每一天按 DAY 过滤
+     */
+    private void writeObject(Object object, FieldFilter filter) {
+        writeByte('{');
+        boolean first = true;
+        if (object instanceof JSONObject) {
+            JSONObject json = (JSONObject) object;
+            Iterator<String> keys = json.keys();
+            while (keys.hasNext()) {
+                String key = keys.next();
+                if (filter.accepts(key)) {
+                    first = writeField(first, key, json.opt(key), filter);
+                }
+            }
+        } else if (object instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) object).entrySet()) {
+                String key = String.valueOf(entry.getKey());
+                if (filter.accepts(key)) {
+                    first = writeField(first, key, entry.getValue(), filter);
+                }
+            }
+        }
+        writeByte('}');
+    }
+
+    private boolean writeField(boolean first, String key, Object value, FieldFilter filter) {
+        if (!first) {
+            writeByte(',');
+        }
+        writeString(key);
+        writeByte(':');
+        writeValue(value, filter.childOf(key));
+        return false;
+    }
+
+    private void writeString(String text) {
+        ensureCapacity(text.length() + 2);
+        writeByte('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                writeByte('\\');
+                writeByte(c);
+            } else if (c < 0x20) {
+                writeControl(c);
+            } else if (c < 0x80) {
+                writeByte(c);
+            } else if (c < 0x800) {
+                ensureCapacity(2);
+                buffer[size++] = (byte) (0xC0 | (c >> 6));
+                buffer[size++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                    && Character.isLowSurrogate(text.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                ensureCapacity(4);
+                buffer[size++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[size++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // 不成对的代理字符与 String.getBytes 一致，替换为 '?'
+                writeByte('?');
+            } else {
+                ensureCapacity(3);
+                buffer[size++] = (byte) (0xE0 | (c >> 12));
+                buffer[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[size++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        writeByte('"');
+    }
+
+    private void writeControl(char c) {
+        writeByte('\\');
+        switch (c) {
+            case '\b':
+                writeByte('b');
+                break;
+            case '\f':
+                writeByte('f');
+                break;
+            case '\n':
+                writeByte('n');
+                break;
+            case '\r':
+                writeByte('r');
+                break;
+            case '\t':
+                writeByte('t');
+                break;
+            default:
+                ensureCapacity(5);
+                buffer[size++] = 'u';
+                buffer[size++] = '0';
+                buffer[size++] = '0';
+                buffer[size++] = HEX[c >> 4];
+                buffer[size++] = HEX[c & 0xF];
+                break;
+        }
+    }
+
+    private void writeAscii(String text) {
+        ensureCapacity(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            buffer[size++] = (byte) text.charAt(i);
+        }
+    }
+
+    private void writeByte(int b) {
+        ensureCapacity(1);
+        buffer[size++] = (byte) b;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+
+    private static boolean isFinite(Number number) {
+        if (number instanceof Double || number instanceof Float) {
+            double value = number.doubleValue();
+            return !Double.isNaN(value) && !Double.isInfinite(value);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,439 @@
+package com.application.zaona.weather;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * 天气数据二进制编码器
+ *
+ * 帧格式：[版本号 1B][标志位 1B][快照序号 varint][正文]，标志位 bit0 表示正文经过 zlib 压缩，
+ * bit1 表示正文为增量补丁。
+ * 正文由 (字段编号, 值) 序列组成，字段编号与值类型由下方字典约定；
+ * 无法按字典编码的字段以编号 0 + 字段名 + 字符串值写入，保证不丢数据。
+ * 补丁正文以基准序号开头，随后是变化的顶层字段、被移除的顶层字段名、变化的日期
+ * （含 fxDate、变化字段与该日被移除的字段名）和被移除的日期，移除项都以个数 + 字符串列表写入。
+ * 快应用读取首字节即可判断是否支持当前版本。
+ */
+final class WeatherPayloadEncoder {
+
+    static final int FORMAT_VERSION = 3;
+    static final int FLAG_DEFLATE = 0x01;
+    static final int FLAG_PATCH = 0x02;
+
+    private static final int TYPE_STRING = 0;
+    private static final int TYPE_INT = 1;
+    private static final int TYPE_TEXT = 2;
+    private static final int TYPE_DATE = 3;
+    private static final int TYPE_TIME = 4;
+    private static final int TYPE_DAYS = 5;
+
+    private static final int FIELD_UNKNOWN = 0;
+
+    private static final String[] ROOT_FIELDS = {
+            null, "code", "updateTime", "fxLink", "location", "daily"
+    };
+    private static final int[] ROOT_TYPES = {
+            -1, TYPE_STRING, TYPE_STRING, TYPE_STRING, TYPE_STRING, TYPE_DAYS
+    };
+
+    private static final String[] DAY_FIELDS = {
+            null, "fxDate", "sunrise", "sunset", "moonrise", "moonset", "moonPhase", "moonPhaseIcon",
+            "tempMax", "tempMin", "iconDay", "textDay", "iconNight", "textNight",
+            "wind360Day", "windDirDay", "windScaleDay", "windSpeedDay",
+            "wind360Night", "windDirNight", "windScaleNight", "windSpeedNight",
+            "humidity", "precip", "pressure", "vis", "cloud", "uvIndex"
+    };
+    private static final int[] DAY_TYPES = {
+            -1, TYPE_DATE, TYPE_TIME, TYPE_TIME, TYPE_TIME, TYPE_TIME, TYPE_TEXT, TYPE_INT,
+            TYPE_INT, TYPE_INT, TYPE_INT, TYPE_TEXT, TYPE_INT, TYPE_TEXT,
+            TYPE_INT, TYPE_TEXT, TYPE_STRING, TYPE_INT,
+            TYPE_INT, TYPE_TEXT, TYPE_STRING, TYPE_INT,
+            TYPE_INT, TYPE_STRING, TYPE_INT, TYPE_INT, TYPE_INT, TYPE_INT
+    };
+
+    // 天气现象、风向、月相文本字典，编号 0 保留为“字典外文本”
+    private static final String[] TEXTS = {
+            null,
+            "晴", "多云", "少云", "晴间多云", "阴",
+            "阵雨", "强阵雨", "雷阵雨", "强雷阵雨", "雷阵雨伴有冰雹",
+            "小雨", "中雨", "大雨", "极端降雨", "毛毛雨/细雨", "暴雨", "大暴雨", "特大暴雨", "冻雨",
+            "小到中雨", "中到大雨", "大到暴雨", "暴雨到大暴雨", "大暴雨到特大暴雨", "雨",
+            "小雪", "中雪", "大雪", "暴雪", "雨夹雪", "雨雪天气", "阵雨夹雪", "阵雪",
+            "小到中雪", "中到大雪", "大到暴雪", "雪",
+            "薄雾", "雾", "霾", "扬沙", "浮尘", "沙尘暴", "强沙尘暴",
+            "浓雾", "强浓雾", "中度霾", "重度霾", "严重霾", "大雾", "特强浓雾", "热", "冷", "未知",
+            "北风", "东北风", "东风", "东南风", "南风", "西南风", "西风", "西北风", "旋转风", "无持续风向",
+            "新月", "蛾眉月", "上弦月", "盈凸月", "满月", "亏凸月", "下弦月", "残月"
+    };
+
+    private static final Map<String, Integer> ROOT_INDEX = index(ROOT_FIELDS);
+    private static final Map<String, Integer> DAY_INDEX = index(DAY_FIELDS);
+    private static final Map<String, Integer> TEXT_INDEX = index(TEXTS);
+
+    private WeatherPayloadEncoder() {
+    }
+
+    /**
+     * 是否为手表使用的每日字段，JSON 兼容格式按同一字典过滤
+     */
+    static boolean isDayField(String name) {
+        return DAY_INDEX.containsKey(name);
+    }
+
+    /**
+     * 编码完整快照，compress 为 true 且压缩后更小时才启用压缩
+     */
+    static byte[] encode(Map<?, ?> data, long sequence, boolean compress) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(512);
+        writeRoot(body, data);
+        return frame(body.toByteArray(), 0, sequence, compress);
+    }
+
+    /**
+     * 编码相对 base 的增量补丁，数据没有任何变化时返回 null
+     */
+    static byte[] encodePatch(
+            Map<?, ?> data,
+            WeatherSyncState.Snapshot base,
+            WeatherSyncState.Snapshot next,
+            boolean compress
+    ) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(128);
+        writeVarint(body, base.sequence);
+
+        List<String> changedRoot = new ArrayList<>();
+        for (String key : next.root.keySet()) {
+            if (next.rootChanged(key, base)) {
+                changedRoot.add(key);
+            }
+        }
+        writeVarint(body, changedRoot.size());
+        for (String key : changedRoot) {
+            writeField(body, key, data.get(key), ROOT_INDEX, ROOT_TYPES);
+        }
+        List<String> removedRoot = removedKeys(base.root, next.root);
+        writeStrings(body, removedRoot);
+
+        Object daily = data.get("daily");
+        List<?> days = daily instanceof List ? (List<?>) daily : new ArrayList<>();
+        ByteArrayOutputStream dayBody = new ByteArrayOutputStream(128);
+        int changedDays = 0;
+        for (Object day : days) {
+            Map<?, ?> fields = (Map<?, ?>) day;
+            String date = String.valueOf(fields.get("fxDate"));
+            List<String> changedFields = new ArrayList<>();
+            for (Object key : fields.keySet()) {
+                String field = String.valueOf(key);
+                if (!"fxDate".equals(field) && next.fieldChanged(date, field, base)) {
+                    changedFields.add(field);
+                }
+            }
+            Map<String, Long> baseDay = base.days.get(date);
+            List<String> removedFields = baseDay == null
+                    ? new ArrayList<String>()
+                    : removedKeys(baseDay, next.days.get(date));
+            if (changedFields.isEmpty() && removedFields.isEmpty() && baseDay != null) {
+                continue;
+            }
+            changedDays++;
+            writeVarint(dayBody, changedFields.size() + 1);
+            writeField(dayBody, "fxDate", date, DAY_INDEX, DAY_TYPES);
+            for (String field : changedFields) {
+                writeField(dayBody, field, fields.get(field), DAY_INDEX, DAY_TYPES);
+            }
+            writeStrings(dayBody, removedFields);
+        }
+        writeVarint(body, changedDays);
+        byte[] dayBytes = dayBody.toByteArray();
+        body.write(dayBytes, 0, dayBytes.length);
+
+        List<String> removedDays = removedKeys(base.days, next.days);
+        writeStrings(body, removedDays);
+
+        if (changedRoot.isEmpty() && removedRoot.isEmpty() && changedDays == 0 && removedDays.isEmpty()) {
+            return null;
+        }
+        return frame(body.toByteArray(), FLAG_PATCH, next.sequence, compress);
+    }
+
+    private static List<String> removedKeys(Map<String, ?> base, Map<String, ?> next) {
+        List<String> removed = new ArrayList<>();
+        for (String key : base.keySet()) {
+            if (!next.containsKey(key)) {
+                removed.add(key);
+            }
+        }
+        return removed;
+    }
+
+    private static void writeStrings(ByteArrayOutputStream out, List<String> values) {
+        writeVarint(out, values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static byte[] frame(byte[] raw, int flags, long sequence, boolean compress) {
+        byte[] content = raw;
+        if (compress) {
+            byte[] deflated = deflate(raw);
+            if (deflated.length < raw.length) {
+                content = deflated;
+                flags |= FLAG_DEFLATE;
+            }
+        }
+
+        ByteArrayOutputStream frame = new ByteArrayOutputStream(content.length + 12);
+        frame.write(FORMAT_VERSION);
+        frame.write(flags);
+        writeVarint(frame, sequence);
+        frame.write(content, 0, content.length);
+        return frame.toByteArray();
+    }
+
+    private static void writeRoot(ByteArrayOutputStream out, Map<?, ?> data) {
+        int count = 0;
+        for (Object value : data.values()) {
+            if (isEncodable(value)) {
+                count++;
+            }
+        }
+        writeVarint(out, count);
+        for (Map.Entry<?, ?> entry : data.entrySet()) {
+            if (!isEncodable(entry.getValue())) {
+                // refer 等嵌套的元数据不下发到手表
+                continue;
+            }
+            writeField(out, String.valueOf(entry.getKey()), entry.getValue(), ROOT_INDEX, ROOT_TYPES);
+        }
+    }
+
+    private static void writeDays(ByteArrayOutputStream out, List<?> days) {
+        writeVarint(out, days.size());
+        for (Object day : days) {
+            Map<?, ?> fields = day instanceof Map ? (Map<?, ?>) day : null;
+            if (fields == null) {
+                writeVarint(out, 0);
+                continue;
+            }
+            writeVarint(out, fields.size());
+            for (Map.Entry<?, ?> entry : fields.entrySet()) {
+                writeField(out, String.valueOf(entry.getKey()), entry.getValue(), DAY_INDEX, DAY_TYPES);
+            }
+        }
+    }
+
+    private static void writeField(
+            ByteArrayOutputStream out,
+            String key,
+            Object value,
+            Map<String, Integer> fieldIndex,
+            int[] fieldTypes
+    ) {
+        Integer id = fieldIndex.get(key);
+        if (id != null) {
+            int type = fieldTypes[id];
+            if (type == TYPE_DAYS && value instanceof List) {
+                writeVarint(out, id);
+                writeDays(out, (List<?>) value);
+                return;
+            }
+            String text = value == null ? "" : value.toString();
+            if (tryWriteTyped(out, id, type, text)) {
+                return;
+            }
+        }
+        writeVarint(out, FIELD_UNKNOWN);
+        writeString(out, key);
+        writeString(out, value == null ? "" : value.toString());
+    }
+
+    private static boolean tryWriteTyped(ByteArrayOutputStream out, int id, int type, String text) {
+        switch (type) {
+            case TYPE_STRING:
+                writeVarint(out, id);
+                writeString(out, text);
+                return true;
+            case TYPE_INT: {
+                Integer number = parseInt(text);
+                if (number == null) {
+                    return false;
+                }
+                writeVarint(out, id);
+                writeVarint(out, zigzag(number));
+                return true;
+            }
+            case TYPE_TEXT: {
+                writeVarint(out, id);
+                Integer code = TEXT_INDEX.get(text);
+                if (code != null) {
+                    writeVarint(out, code);
+                } else {
+                    writeVarint(out, 0);
+                    writeString(out, text);
+                }
+                return true;
+            }
+            case TYPE_DATE: {
+                long epochDay = parseEpochDay(text);
+                if (epochDay < 0) {
+                    return false;
+                }
+                writeVarint(out, id);
+                writeVarint(out, epochDay);
+                return true;
+            }
+            case TYPE_TIME: {
+                int minutes = parseMinuteOfDay(text);
+                if (minutes < 0) {
+                    return false;
+                }
+                writeVarint(out, id);
+                writeVarint(out, minutes);
+                return true;
+            }
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isEncodable(Object value) {
+        return value == null
+                || value instanceof String
+                || value instanceof Number
+                || value instanceof Boolean
+                || value instanceof List;
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length);
+            byte[] buffer = new byte[1024];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static void writeString(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static long zigzag(int value) {
+        return ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL;
+    }
+
+    /**
+     * 只接受能原样还原的整数写法，"05"、"+5"、"-0" 等返回 null 按字符串编码
+     */
+    private static Integer parseInt(String text) {
+        if (text.isEmpty() || text.length() > 9) {
+            return null;
+        }
+        try {
+            int number = Integer.parseInt(text);
+            return String.valueOf(number).equals(text) ? number : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 解析固定位数的十进制数字，含非数字字符返回 -1
+     */
+    private static int parseDigits(String text, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * 解析 yyyy-MM-dd 为距 1970-01-01 的天数，格式不符或日期不存在返回 -1
+     */
+    private static long parseEpochDay(String text) {
+        if (text.length() != 10 || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return -1;
+        }
+        int year = parseDigits(text, 0, 4);
+        int month = parseDigits(text, 5, 7);
+        int day = parseDigits(text, 8, 10);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            return -1;
+        }
+        // 公历日期转儒略日数的常用算法
+        int y = month <= 2 ? year - 1 : year;
+        int era = y / 400;
+        int yearOfEra = y - era * 400;
+        int monthIndex = month > 2 ? month - 3 : month + 9;
+        int dayOfYear = (153 * monthIndex + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        long epochDay = (long) era * 146097 + dayOfEra - 719468;
+        return epochDay >= 0 ? epochDay : -1;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                boolean leap = year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+                return leap ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * 解析 HH:mm 为当天分钟数，格式不符返回 -1
+     */
+    private static int parseMinuteOfDay(String text) {
+        if (text.length() != 5 || text.charAt(2) != ':') {
+            return -1;
+        }
+        int hour = parseDigits(text, 0, 2);
+        int minute = parseDigits(text, 3, 5);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            return -1;
+        }
+        return hour * 60 + minute;
+    }
+
+    private static Map<String, Integer> index(String[] names) {
+        Map<String, Integer> map = new HashMap<>();
+        for (int i = 1; i < names.length; i++) {
+            map.put(names[i], i);
+        }
+        return map;
+    }
+}
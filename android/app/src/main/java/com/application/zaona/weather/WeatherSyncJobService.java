@@ -0,0 +1,140 @@
+package com.application.zaona.weather;
+
+import android.app.job.JobParameters;
+import android.app.job.JobService;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 后台定时同步任务：在原生层获取天气并通过 WearableSdkManager 发送到手表，不启动 Flutter 引擎
+ * 和手表端快应用；快应用没有在运行时本周期跳过，数据由手表端打开时拉取或下一个周期补上。
+ *
+ * 同一时间只运行一个同步，期间到达的触发直接放弃，由下一个周期补上。
+ * 系统停止任务或超过看门狗时限时取消本次同步并释放运行标记，交由调度器稍后重试。
+ */
+public class WeatherSyncJobService extends JobService {
+    private static final String TAG = "WeatherSyncJob";
+    // 覆盖获取天气、等待 SDK 就绪和握手的总时长，远小于系统给任务的 10 分钟
+    private static final long SYNC_TIMEOUT_MS = 120_000;
+    private static final AtomicBoolean running = new AtomicBoolean();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private volatile SyncRun activeRun;
+
+    /**
+     * 一次同步的状态，done 保证结束、取消、超时只生效一次
+     */
+    private static final class SyncRun {
+        final JobParameters params;
+        final AtomicBoolean done = new AtomicBoolean();
+        Future<?> work;
+        Runnable watchdog;
+
+        SyncRun(JobParameters params) {
+            this.params = params;
+        }
+    }
+
+    @Override
+    public boolean onStartJob(JobParameters params) {
+        if (!WeatherSyncScheduler.isDue(this) || !running.compareAndSet(false, true)) {
+            return false;
+        }
+
+        SyncRun run = new SyncRun(params);
+        activeRun = run;
+        run.watchdog = () -> {
+            Log.w(TAG, "后台同步超时");
+            finish(run, true);
+        };
+        mainHandler.postDelayed(run.watchdog, SYNC_TIMEOUT_MS);
+        run.work = executor.submit(() -> {
+            QWeatherConfig config = QWeatherConfig.load(this);
+            if (!config.isUsable()) {
+                Log.w(TAG, "未配置 API Key 或位置，跳过后台同步");
+                finish(run, false);
+                return;
+            }
+
+            final byte[] payload;
+            try {
+                payload = QWeatherClient.getInstance(this).fetchForecastPayload(config);
+            } catch (IOException e) {
+                Log.w(TAG, "获取天气失败: " + e.getMessage());
+                finish(run, true);
+                return;
+            }
+
+            mainHandler.post(() -> {
+                if (run.done.get()) {
+                    return;
+                }
+                WearableSdkManager.getInstance(this)
+                        .syncInBackground(payload, config.compatibilityMode, response -> {
+                            boolean success = Boolean.TRUE.equals(response.get("success"));
+                            if (success) {
+                                WeatherSyncScheduler.markSynced(this);
+                            } else {
+                                Log.w(TAG, "后台同步失败: " + response.get("message"));
+                            }
+                            // 手表未连接、快应用未在运行等情况等待下一个周期，不做退避重试
+                            finish(run, !success
+                                    && Boolean.TRUE.equals(response.get("retryable"))
+                                    && !WearableErrorManager.CODE_HANDSHAKE_TIMEOUT.equals(response.get("code")));
+                        });
+            });
+        });
+        return true;
+    }
+
+    @Override
+    public boolean onStopJob(JobParameters params) {
+        // 系统因约束不再满足而停止任务：取消进行中的获取，释放运行标记，交由调度器稍后重新执行
+        SyncRun run = activeRun;
+        if (run != null && run.params == params && release(run)) {
+            if (run.work != null) {
+                run.work.cancel(true);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void onDestroy() {
+        SyncRun run = activeRun;
+        if (run != null && release(run) && run.work != null) {
+            run.work.cancel(true);
+        }
+        executor.shutdownNow();
+        super.onDestroy();
+    }
+
+    private void finish(SyncRun run, boolean reschedule) {
+        if (release(run)) {
+            jobFinished(run.params, reschedule);
+        }
+    }
+
+    /**
+     * 结束一次同步，已结束时返回 false；SDK 回调晚于超时或停止到达时不再重复处理
+     */
+    private boolean release(SyncRun run) {
+        if (!run.done.compareAndSet(false, true)) {
+            return false;
+        }
+        mainHandler.removeCallbacks(run.watchdog);
+        if (activeRun == run) {
+            activeRun = null;
+        }
+        running.set(false);
+        return true;
+    }
+}
@@ -0,0 +1,87 @@
+package com.application.zaona.weather;
+
+import android.app.job.JobInfo;
+import android.app.job.JobScheduler;
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Build;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 后台定时同步的调度：通过 JobScheduler 周期运行 WeatherSyncJobService
+ *
+ * 任务要求有网络、电量不低，并在重启后保留。相邻的触发由最小同步间隔合并，
+ * 避免短时间内重复请求天气和重复发送到手表。
+ */
+final class WeatherSyncScheduler {
+    static final int JOB_ID = 0x5753;
+
+    private static final String PREFS_NAME = "wearable_background_sync";
+    private static final String KEY_LAST_SYNC_AT = "last_sync_at";
+    private static final String KEY_INTERVAL_MINUTES = "interval_minutes";
+    private static final long MIN_INTERVAL_MINUTES = 15;
+    private static final long DEFAULT_INTERVAL_MINUTES = 60;
+    private static final long BACKOFF_MS = 5 * 60_000;
+
+    private WeatherSyncScheduler() {
+    }
+
+    static boolean schedule(Context context, Number intervalMinutes) {
+        long minutes = intervalMinutes != null && intervalMinutes.longValue() > 0
+                ? Math.max(intervalMinutes.longValue(), MIN_INTERVAL_MINUTES)
+                : DEFAULT_INTERVAL_MINUTES;
+        JobInfo.Builder builder = new JobInfo.Builder(JOB_ID, new ComponentName(context, WeatherSyncJobService.class))
+                .setRequiredNetworkType(JobInfo.NETWORK_TYPE_ANY)
+                .setPeriodic(minutes * 60_000)
+                .setBackoffCriteria(BACKOFF_MS, JobInfo.BACKOFF_POLICY_EXPONENTIAL)
+                .setPersisted(true);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            builder.setRequiresBatteryNotLow(true);
+        }
+
+        JobScheduler scheduler = (JobScheduler) context.getSystemService(Context.JOB_SCHEDULER_SERVICE);
+        if (scheduler == null || scheduler.schedule(builder.build()) != JobScheduler.RESULT_SUCCESS) {
+            return false;
+        }
+        prefs(context).edit().putLong(KEY_INTERVAL_MINUTES, minutes).apply();
+        return true;
+    }
+
+    static void cancel(Context context) {
+        JobScheduler scheduler = (JobScheduler) context.getSystemService(Context.JOB_SCHEDULER_SERVICE);
+        if (scheduler != null) {
+            scheduler.cancel(JOB_ID);
+        }
+        prefs(context).edit().remove(KEY_INTERVAL_MINUTES).apply();
+    }
+
+    static Map<String, Object> buildStatus(Context context) {
+        SharedPreferences prefs = prefs(context);
+        Map<String, Object> status = new HashMap<>();
+        status.put("scheduled", prefs.contains(KEY_INTERVAL_MINUTES));
+        status.put("intervalMinutes", prefs.getLong(KEY_INTERVAL_MINUTES, 0));
+        status.put("lastSyncAt", prefs.getLong(KEY_LAST_SYNC_AT, 0));
+        return status;
+    }
+
+    /**
+     * 距上次成功同步不足半个周期时视为重复触发
+     */
+    static boolean isDue(Context context) {
+        SharedPreferences prefs = prefs(context);
+        long interval = prefs.getLong(KEY_INTERVAL_MINUTES, DEFAULT_INTERVAL_MINUTES) * 60_000;
+        long lastSyncAt = prefs.getLong(KEY_LAST_SYNC_AT, 0);
+        return System.currentTimeMillis() - lastSyncAt >= interval / 2;
+    }
+
+    static void markSynced(Context context) {
+        prefs(context).edit().putLong(KEY_LAST_SYNC_AT, System.currentTimeMillis()).apply();
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+}
@@ -0,0 +1,175 @@
+package com.application.zaona.weather;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 记录每个穿戴设备最近一次确认送达的天气数据指纹，用于计算增量补丁
+ *
+ * 指纹按字段保存 64 位哈希值：顶层字段一份，daily 中每天以 fxDate 为键各一份。
+ * 哈希碰撞会让变化的字段漏出补丁，因此不用 32 位的 String.hashCode。
+ * 数据保存在应用私有的 SharedPreferences 中，重启后仍可继续增量同步。
+ */
+final class WeatherSyncState {
+    private static final String PREFS_NAME = "wearable_sync_state";
+    private static final String DAILY_KEY = "daily";
+    private static final String DATE_KEY = "fxDate";
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final SharedPreferences preferences;
+    private final Map<String, Snapshot> snapshots = new HashMap<>();
+
+    WeatherSyncState(Context context) {
+        preferences = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * 读取节点的已确认指纹，不存在或已损坏时返回 null
+     */
+    Snapshot load(String nodeId) {
+        if (snapshots.containsKey(nodeId)) {
+            return snapshots.get(nodeId);
+        }
+        Snapshot snapshot = null;
+        String saved = preferences.getString(nodeId, null);
+        if (saved != null) {
+            try {
+                snapshot = Snapshot.fromJson(new JSONObject(saved));
+            } catch (JSONException e) {
+                preferences.edit().remove(nodeId).apply();
+            }
+        }
+        snapshots.put(nodeId, snapshot);
+        return snapshot;
+    }
+
+    void save(String nodeId, Snapshot snapshot) {
+        snapshots.put(nodeId, snapshot);
+        try {
+            preferences.edit().putString(nodeId, snapshot.toJson().toString()).apply();
+        } catch (JSONException e) {
+            preferences.edit().remove(nodeId).apply();
+        }
+    }
+
+    void reset(String nodeId) {
+        snapshots.put(nodeId, null);
+        preferences.edit().remove(nodeId).apply();
+    }
+
+    /**
+     * 计算天气数据的字段指纹，daily 中缺少 fxDate 的数据无法按天比对，返回 null
+     */
+    static Snapshot fingerprint(Map<?, ?> data, long sequence) {
+        Snapshot snapshot = new Snapshot(sequence);
+        for (Map.Entry<?, ?> entry : data.entrySet()) {
+            String key = String.valueOf(entry.getKey());
+            Object value = entry.getValue();
+            if (DAILY_KEY.equals(key) && value instanceof List) {
+                for (Object day : (List<?>) value) {
+                    if (!(day instanceof Map)) {
+                        return null;
+                    }
+                    Object date = ((Map<?, ?>) day).get(DATE_KEY);
+                    if (date == null) {
+                        return null;
+                    }
+                    snapshot.days.put(date.toString(), hashFields((Map<?, ?>) day));
+                }
+            } else if (!(value instanceof Map) && !(value instanceof List)) {
+                snapshot.root.put(key, hashOf(value));
+            }
+        }
+        return snapshot;
+    }
+
+    private static Map<String, Long> hashFields(Map<?, ?> fields) {
+        Map<String, Long> hashes = new HashMap<>();
+        for (Map.Entry<?, ?> entry : fields.entrySet()) {
+            hashes.put(String.valueOf(entry.getKey()), hashOf(entry.getValue()));
+        }
+        return hashes;
+    }
+
+    /**
+     * 字段值字符串的 64 位 FNV-1a 哈希，null 为 0
+     */
+    private static long hashOf(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        String text = value.toString();
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            hash = (hash ^ (c & 0xFF)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * 一次已送达数据的指纹
+     */
+    static final class Snapshot {
+        final long sequence;
+        final Map<String, Long> root = new HashMap<>();
+        final Map<String, Map<String, Long>> days = new HashMap<>();
+
+        Snapshot(long sequence) {
+            this.sequence = sequence;
+        }
+
+        boolean rootChanged(String key, Snapshot base) {
+            return !root.get(key).equals(base.root.get(key));
+        }
+
+        boolean fieldChanged(String date, String field, Snapshot base) {
+            Map<String, Long> baseDay = base.days.get(date);
+            return baseDay == null || !days.get(date).get(field).equals(baseDay.get(field));
+        }
+
+        JSONObject toJson() throws JSONException {
+            JSONObject json = new JSONObject();
+            json.put("sequence", sequence);
+            json.put("root", new JSONObject(root));
+            JSONObject dayJson = new JSONObject();
+            for (Map.Entry<String, Map<String, Long>> entry : days.entrySet()) {
+                dayJson.put(entry.getKey(), new JSONObject(entry.getValue()));
+            }
+            json.put("days", dayJson);
+            return json;
+        }
+
+        static Snapshot fromJson(JSONObject json) throws JSONException {
+            Snapshot snapshot = new Snapshot(json.getLong("sequence"));
+            readHashes(json.getJSONObject("root"), snapshot.root);
+            JSONObject dayJson = json.getJSONObject("days");
+            Iterator<String> dates = dayJson.keys();
+            while (dates.hasNext()) {
+                String date = dates.next();
+                Map<String, Long> fields = new HashMap<>();
+                readHashes(dayJson.getJSONObject(date), fields);
+                snapshot.days.put(date, fields);
+            }
+            return snapshot;
+        }
+
+        private static void readHashes(JSONObject json, Map<String, Long> target) throws JSONException {
+            Iterator<String> keys = json.keys();
+            while (keys.hasNext()) {
+                String key = keys.next();
+                target.put(key, json.getLong(key));
+            }
+        }
+    }
+}
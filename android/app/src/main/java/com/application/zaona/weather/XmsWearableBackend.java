@@ -0,0 +1,123 @@
+package com.application.zaona.weather;
+
+import android.content.Context;
+
+import com.xiaomi.xms.wearable.Wearable;
+import com.xiaomi.xms.wearable.auth.AuthApi;
+import com.xiaomi.xms.wearable.auth.Permission;
+import com.xiaomi.xms.wearable.message.MessageApi;
+import com.xiaomi.xms.wearable.message.OnMessageReceivedListener;
+import com.xiaomi.xms.wearable.node.Node;
+import com.xiaomi.xms.wearable.node.NodeApi;
+import com.xiaomi.xms.wearable.notify.NotifyApi;
+import com.xiaomi.xms.wearable.service.OnServiceConnectionListener;
+import com.xiaomi.xms.wearable.service.ServiceApi;
+import com.xiaomi.xms.wearable.tasks.Task;
+
+import java.util.List;
+
+/**
+ * 基于小米穿戴 SDK 的实现，SDK 返回 null 时对应的 getter 也返回 null
+ */
+final class XmsWearableBackend implements WearableBackend {
+    private final Context context;
+
+    XmsWearableBackend(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    @Override
+    public NodeClient getNodeClient() {
+        final NodeApi api = Wearable.getNodeApi(context);
+        if (api == null) {
+            return null;
+        }
+        return new NodeClient() {
+            @Override
+            public Task<List<Node>> getConnectedNodes() {
+                return api.getConnectedNodes();
+            }
+
+            @Override
+            public Task<Boolean> isWearAppInstalled(String nodeId) {
+                return api.isWearAppInstalled(nodeId);
+            }
+
+            @Override
+            public Task<Void> launchWearApp(String nodeId, String path) {
+                return api.launchWearApp(nodeId, path);
+            }
+        };
+    }
+
+    @Override
+    public MessageClient getMessageClient() {
+        final MessageApi api = Wearable.getMessageApi(context);
+        if (api == null) {
+            return null;
+        }
+        return new MessageClient() {
+            @Override
+            public Task<Void> sendMessage(String nodeId, byte[] data) {
+                return api.sendMessage(nodeId, data);
+            }
+
+            @Override
+            public Task<Void> addListener(String nodeId, OnMessageReceivedListener listener) {
+                return api.addListener(nodeId, listener);
+            }
+
+            @Override
+            public Task<Void> removeListener(String nodeId) {
+                return api.removeListener(nodeId);
+            }
+        };
+    }
+
+    @Override
+    public AuthClient getAuthClient() {
+        final AuthApi api = Wearable.getAuthApi(context);
+        if (api == null) {
+            return null;
+        }
+        return new AuthClient() {
+            @Override
+            public Task<boolean[]> checkPermissions(String nodeId, Permission[] permissions) {
+                return api.checkPermissions(nodeId, permissions);
+            }
+
+            @Override
+            public Task<Permission[]> requestPermission(String nodeId, Permission... permissions) {
+                return api.requestPermission(nodeId, permissions);
+            }
+        };
+    }
+
+    @Override
+    public NotifyClient getNotifyClient() {
+        final NotifyApi api = Wearable.getNotifyApi(context);
+        if (api == null) {
+            return null;
+        }
+        return api::sendNotify;
+    }
+
+    @Override
+    public ServiceClient getServiceClient() {
+        final ServiceApi api = Wearable.getServiceApi(context);
+        if (api == null) {
+            return null;
+        }
+        return new ServiceClient() {
+            @Override
+            public void registerServiceConnectionListener(OnServiceConnectionListener listener) {
+                api.registerServiceConnectionListener(listener);
+            }
+
+            @Override
+            public void unregisterServiceConnectionListener(OnServiceConnectionListener listener) {
+                api.unregisterServiceConnectionListener(listener);
+            }
+        };
+    }
+}
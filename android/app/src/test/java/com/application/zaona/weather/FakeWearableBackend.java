@@ -0,0 +1,426 @@
+package com.application.zaona.weather;
+
+import com.xiaomi.xms.wearable.Status;
+import com.xiaomi.xms.wearable.auth.Permission;
+import com.xiaomi.xms.wearable.message.OnMessageReceivedListener;
+import com.xiaomi.xms.wearable.node.Node;
+import com.xiaomi.xms.wearable.service.OnServiceConnectionListener;
+import com.xiaomi.xms.wearable.tasks.OnFailureListener;
+import com.xiaomi.xms.wearable.tasks.OnSuccessListener;
+import com.xiaomi.xms.wearable.tasks.Task;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 进程内模拟手表：不依赖穿戴服务，供单元测试驱动 WearableSdkManager
+ *
+ * 可配置单次调用延迟、MTU、丢包率以及是否回复 "ready"；收到分片时按序回复累计确认，
+ * 与 ChunkedTransfer 的协议一致。回调在独立的调度线程上完成。
+ * Task 继承自 SDK，Node 是 Parcelable，需要在 Robolectric 下运行。
+ */
+final class FakeWearableBackend implements WearableBackend {
+    static final String NODE_ID = "fake-node";
+    static final String NODE_NAME = "Fake Watch";
+
+    private static final byte[] READY_BYTES = "ready".getBytes(StandardCharsets.UTF_8);
+    private static final String START = "start";
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "fake-wearable-node");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Random random;
+
+    private volatile long latencyMs;
+    private volatile int mtu = Integer.MAX_VALUE;
+    private volatile double lossRate;
+    private volatile boolean replyReady = true;
+    private volatile long readyDelayMs;
+    private volatile boolean connected = true;
+    private final AtomicInteger nodeQueryFailures = new AtomicInteger();
+
+    private final Map<String, OnMessageReceivedListener> listeners = Collections.synchronizedMap(new HashMap<>());
+    private final List<OnServiceConnectionListener> serviceListeners = new CopyOnWriteArrayList<>();
+    // 仅在调度线程读写：各传输下一个期望的分片序号
+    private final Map<Long, Long> expectedChunks = new HashMap<>();
+
+    private long messagesReceived;
+    private long bytesReceived;
+    private long messagesDropped;
+
+    FakeWearableBackend(long seed) {
+        random = new Random(seed);
+    }
+
+    /**
+     * 每次 SDK 调用完成前的延迟，模拟蓝牙往返
+     */
+    FakeWearableBackend setLatencyMs(long latencyMs) {
+        this.latencyMs = latencyMs;
+        return this;
+    }
+
+    /**
+     * 单条消息的最大字节数，超出时发送失败
+     */
+    FakeWearableBackend setMtu(int mtu) {
+        this.mtu = mtu;
+        return this;
+    }
+
+    /**
+     * 发送失败的概率，取值 0 到 1
+     */
+    FakeWearableBackend setLossRate(double lossRate) {
+        this.lossRate = lossRate;
+        return this;
+    }
+
+    /**
+     * 收到 "start" 后是否以及多久回复 "ready"，模拟快应用的启动耗时
+     */
+    FakeWearableBackend setReadyReply(boolean replyReady, long readyDelayMs) {
+        this.replyReady = replyReady;
+        this.readyDelayMs = readyDelayMs;
+        return this;
+    }
+
+    /**
+     * 接下来的 count 次设备查询失败，模拟蓝牙短暂抖动
+     */
+    FakeWearableBackend failNodeQueries(int count) {
+        nodeQueryFailures.set(count);
+        return this;
+    }
+
+    /**
+     * 模拟穿戴服务断开和重连，断开期间所有调用失败
+     */
+    void setConnected(boolean connected) {
+        this.connected = connected;
+        for (OnServiceConnectionListener listener : serviceListeners) {
+            if (connected) {
+                listener.onServiceConnected();
+            } else {
+                listener.onServiceDisconnected();
+            }
+        }
+    }
+
+    synchronized long getMessagesReceived() {
+        return messagesReceived;
+    }
+
+    synchronized long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    synchronized long getMessagesDropped() {
+        return messagesDropped;
+    }
+
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public NodeClient getNodeClient() {
+        return new NodeClient() {
+            @Override
+            public Task<List<Node>> getConnectedNodes() {
+                if (nodeQueryFailures.getAndUpdate(count -> Math.max(0, count - 1)) > 0) {
+                    return fail(new IllegalStateException("模拟设备查询失败"));
+                }
+                List<Node> nodes = connected
+                        ? Collections.singletonList(new Node(NODE_ID, NODE_NAME))
+                        : Collections.emptyList();
+                return complete(nodes);
+            }
+
+            @Override
+            public Task<Boolean> isWearAppInstalled(String nodeId) {
+                return complete(Boolean.TRUE);
+            }
+
+            @Override
+            public Task<Void> launchWearApp(String nodeId, String path) {
+                return complete(null);
+            }
+        };
+    }
+
+    @Override
+    public MessageClient getMessageClient() {
+        return new MessageClient() {
+            @Override
+            public Task<Void> sendMessage(String nodeId, byte[] data) {
+                if (data.length > mtu) {
+                    return fail(new IllegalArgumentException("消息超出 MTU: " + data.length + " > " + mtu));
+                }
+                if (lossRate > 0 && nextDouble() < lossRate) {
+                    synchronized (FakeWearableBackend.this) {
+                        messagesDropped++;
+                    }
+                    return fail(new IllegalStateException("模拟丢包"));
+                }
+                FakeTask<Void> task = complete(null);
+                if (!connected) {
+                    return task;
+                }
+                scheduler.schedule(() -> onDelivered(nodeId, data), latencyMs, TimeUnit.MILLISECONDS);
+                return task;
+            }
+
+            @Override
+            public Task<Void> addListener(String nodeId, OnMessageReceivedListener listener) {
+                listeners.put(nodeId, listener);
+                return complete(null);
+            }
+
+            @Override
+            public Task<Void> removeListener(String nodeId) {
+                listeners.remove(nodeId);
+                return complete(null);
+            }
+        };
+    }
+
+    @Override
+    public AuthClient getAuthClient() {
+        return new AuthClient() {
+            @Override
+            public Task<boolean[]> checkPermissions(String nodeId, Permission[] permissions) {
+                boolean[] granted = new boolean[permissions.length];
+                Arrays.fill(granted, true);
+                return complete(granted);
+            }
+
+            @Override
+            public Task<Permission[]> requestPermission(String nodeId, Permission... permissions) {
+                return complete(permissions);
+            }
+        };
+    }
+
+    @Override
+    public NotifyClient getNotifyClient() {
+        return (nodeId, title, message) -> complete(Status.RESULT_SUCCESS);
+    }
+
+    @Override
+    public ServiceClient getServiceClient() {
+        return new ServiceClient() {
+            @Override
+            public void registerServiceConnectionListener(OnServiceConnectionListener listener) {
+                serviceListeners.add(listener);
+            }
+
+            @Override
+            public void unregisterServiceConnectionListener(OnServiceConnectionListener listener) {
+                serviceListeners.remove(listener);
+            }
+        };
+    }
+
+    private synchronized double nextDouble() {
+        return random.nextDouble();
+    }
+
+    private void onDelivered(String nodeId, byte[] data) {
+        synchronized (this) {
+            messagesReceived++;
+            bytesReceived += data.length;
+        }
+        if (data.length > 0 && (data[0] & 0xFF) == ChunkedTransfer.CHUNK_MARKER) {
+            acknowledgeChunk(nodeId, data);
+        } else if (replyReady && START.equals(new String(data, StandardCharsets.UTF_8))) {
+            scheduler.schedule(() -> reply(nodeId, READY_BYTES), readyDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 解析分片头并回复累计确认，乱序到达的分片不推进确认位置
+     */
+    private void acknowledgeChunk(String nodeId, byte[] data) {
+        int[] offset = {1};
+        long transferId = readVarint(data, offset);
+        long sequence = readVarint(data, offset);
+        long total = readVarint(data, offset);
+        long expected = expectedChunks.containsKey(transferId) ? expectedChunks.get(transferId) : 0;
+        if (sequence == expected) {
+            expected++;
+        }
+        if (expected >= total) {
+            expectedChunks.remove(transferId);
+        } else {
+            expectedChunks.put(transferId, expected);
+        }
+        String ack = ChunkedTransfer.ACK_PREFIX + transferId + ":" + expected;
+        reply(nodeId, ack.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void reply(String nodeId, byte[] data) {
+        OnMessageReceivedListener listener = listeners.get(nodeId);
+        if (listener != null) {
+            listener.onMessageReceived(nodeId, data);
+        }
+    }
+
+    private static long readVarint(byte[] data, int[] offset) {
+        long value = 0;
+        int shift = 0;
+        while (offset[0] < data.length) {
+            int b = data[offset[0]++] & 0xFF;
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+            shift += 7;
+        }
+        return value;
+    }
+
+    private <T> FakeTask<T> complete(T value) {
+        FakeTask<T> task = new FakeTask<>();
+        if (!connected) {
+            task.setException(new IllegalStateException("穿戴服务未连接"));
+            return task;
+        }
+        scheduler.schedule(() -> task.setResult(value), latencyMs, TimeUnit.MILLISECONDS);
+        return task;
+    }
+
+    private <T> FakeTask<T> fail(Exception error) {
+        FakeTask<T> task = new FakeTask<>();
+        scheduler.schedule(() -> task.setException(error), latencyMs, TimeUnit.MILLISECONDS);
+        return task;
+    }
+
+    /**
+     * 最小的 Task 实现：完成前注册的监听在完成时分发，完成后注册的立即分发
+     */
+    private static final class FakeTask<T> extends Task<T> {
+        private static final Executor DIRECT = Runnable::run;
+
+        private final List<Runnable> pending = new ArrayList<>();
+        private boolean complete;
+        private T result;
+        private Exception exception;
+
+        synchronized void setResult(T value) {
+            if (complete) {
+                return;
+            }
+            result = value;
+            finish();
+        }
+
+        synchronized void setException(Exception error) {
+            if (complete) {
+                return;
+            }
+            exception = error;
+            finish();
+        }
+
+        private void finish() {
+            complete = true;
+            for (Runnable action : pending) {
+                action.run();
+            }
+            pending.clear();
+        }
+
+        private synchronized void whenComplete(Runnable action) {
+            if (complete) {
+                action.run();
+            } else {
+                pending.add(action);
+            }
+        }
+
+        @Override
+        public synchronized boolean isComplete() {
+            return complete;
+        }
+
+        @Override
+        public synchronized boolean isSuccessful() {
+            return complete && exception == null;
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return false;
+        }
+
+        @Override
+        public synchronized T getResult() {
+            if (exception != null) {
+                throw new IllegalStateException(exception);
+            }
+            return result;
+        }
+
+        @Override
+        public <X extends Throwable> T getResult(Class<X> type) throws X {
+            synchronized (this) {
+                if (type.isInstance(exception)) {
+                    throw type.cast(exception);
+                }
+            }
+            return getResult();
+        }
+
+        @Override
+        public synchronized Exception getException() {
+            return exception;
+        }
+
+        @Override
+        public Task<T> addOnSuccessListener(OnSuccessListener<? super T> listener) {
+            return addOnSuccessListener(DIRECT, listener);
+        }
+
+        @Override
+        public Task<T> addOnSuccessListener(Executor executor, OnSuccessListener<? super T> listener) {
+            whenComplete(() -> {
+                if (exception == null) {
+                    T value = result;
+                    executor.execute(() -> listener.onSuccess(value));
+                }
+            });
+            return this;
+        }
+
+        @Override
+        public Task<T> addOnFailureListener(OnFailureListener listener) {
+            return addOnFailureListener(DIRECT, listener);
+        }
+
+        @Override
+        public Task<T> addOnFailureListener(Executor executor, OnFailureListener listener) {
+            whenComplete(() -> {
+                if (exception != null) {
+                    Exception error = exception;
+                    executor.execute(() -> listener.onFailure(error));
+                }
+            });
+            return this;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.application.zaona.weather;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel;
+
+/**
+ * 通过 onMethodCall 驱动 WearableSdkManager，对端为 FakeWearableBackend
+ *
+ * 假设备在自己的调度线程上按真实时间回调，主线程 Looper 按相同步长推进，两边的计时保持一致。
+ */
+@RunWith(RobolectricTestRunner.class)
+public class WearableSdkManagerTest {
+    private static final long STEP_MS = 5;
+    private static final long WAIT_TIMEOUT_MS = 30_000;
+
+    private FakeWearableBackend backend;
+    private WearableMessageHandler handler;
+
+    @Before
+    public void setUp() {
+        backend = new FakeWearableBackend(42).setLatencyMs(5);
+        WearableSdkManager manager = new WearableSdkManager(
+                RuntimeEnvironment.getApplication(),
+                new Handler(Looper.getMainLooper()),
+                backend
+        );
+        handler = new WearableMessageHandler(manager);
+    }
+
+    @After
+    public void tearDown() {
+        backend.shutdown();
+    }
+
+    @Test
+    public void nodeQueryRecoversAfterTransientFailure() {
+        backend.failNodeQueries(1);
+
+        // 第二次查询成功，重试后的成功响应不能被当成错误
+        Map<String, Object> response = call("getConnectedNodes", null);
+        assertSuccess(response);
+        Map<?, ?> node = (Map<?, ?>) response.get("data");
+        assertNotNull(node);
+        assertEquals(FakeWearableBackend.NODE_ID, node.get("id"));
+
+        Map<String, Object> args = new HashMap<>();
+        args.put("data", forecast(3));
+        assertSuccess(call("sendWeatherPayload", args));
+    }
+
+    @Test
+    public void handshakeSendsPayloadAfterReady() {
+        backend.setReadyReply(true, 300);
+        assertSuccess(call("getConnectedNodes", null));
+
+        Map<String, Object> args = new HashMap<>();
+        args.put("payload", "{\"code\":\"200\"}");
+        args.put("timeoutMs", 5000);
+        Map<String, Object> response = call("syncWithHandshake", args);
+
+        assertSuccess(response);
+        Map<?, ?> stats = (Map<?, ?>) response.get("data");
+        assertTrue((Integer) stats.get("attempts") >= 1);
+        // 至少一次探测加上天气数据
+        assertTrue(backend.getMessagesReceived() >= 2);
+    }
+
+    @Test
+    public void handshakeTimesOutWhenWatchNeverAnswers() {
+        backend.setReadyReply(false, 0);
+        assertSuccess(call("getConnectedNodes", null));
+
+        Map<String, Object> args = new HashMap<>();
+        args.put("payload", "{\"code\":\"200\"}");
+        args.put("timeoutMs", 1000);
+        Map<String, Object> response = call("syncWithHandshake", args);
+
+        assertFalse((Boolean) response.get("success"));
+        assertEquals(WearableErrorManager.CODE_HANDSHAKE_TIMEOUT, response.get("code"));
+    }
+
+    @Test
+    public void chunkedTransferCompletesUnderSmallMtuAndLoss() {
+        backend.setMtu(128);
+        assertSuccess(call("getConnectedNodes", null));
+
+        Map<String, Object> args = new HashMap<>();
+        args.put("data", forecast(7));
+        args.put("compress", false);
+
+        // 整帧超过 MTU，单条发送在重试耗尽后失败
+        args.put("chunked", false);
+        Map<String, Object> single = call("sendWeatherPayload", args);
+        assertEquals(WearableErrorManager.CODE_MESSAGE_ERROR, single.get("code"));
+
+        backend.setLossRate(0.3);
+        args.put("chunked", true);
+        args.put("chunkSize", 64);
+        Map<String, Object> chunked = call("sendWeatherPayload", args);
+
+        assertSuccess(chunked);
+        Map<?, ?> info = (Map<?, ?>) chunked.get("data");
+        assertTrue((Integer) info.get("bytes") > 128);
+        // 丢失的分片由暂停后续传补齐
+        assertTrue(backend.getMessagesDropped() > 0);
+    }
+
+    @Test
+    public void reconnectResendsPushThatFailedWhileDisconnected() {
+        assertSuccess(call("getConnectedNodes", null));
+
+        backend.setConnected(false);
+        Map<String, Object> args = new HashMap<>();
+        args.put("data", forecast(3));
+        Map<String, Object> failed = call("sendWeatherPayload", args);
+        assertFalse((Boolean) failed.get("success"));
+        long received = backend.getMessagesReceived();
+
+        backend.setConnected(true);
+        await(() -> backend.getMessagesReceived() > received);
+
+        // 会话恢复后监听重新注册，握手可以正常完成
+        backend.setReadyReply(true, 100);
+        Map<String, Object> handshake = new HashMap<>();
+        handshake.put("payload", "{\"code\":\"200\"}");
+        handshake.put("timeoutMs", 5000);
+        assertSuccess(call("syncWithHandshake", handshake));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> call(String method, Map<String, Object> arguments) {
+        CapturedResult result = new CapturedResult();
+        handler.onMethodCall(new MethodCall(method, arguments), result);
+        await(() -> result.done);
+        assertNotNull(method + " 没有返回结果", result.response);
+        return (Map<String, Object>) result.response;
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + WAIT_TIMEOUT_MS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("等待超时");
+            }
+            shadowOf(Looper.getMainLooper()).idleFor(STEP_MS, TimeUnit.MILLISECONDS);
+            try {
+                Thread.sleep(STEP_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail("等待被中断");
+            }
+        }
+    }
+
+    private static void assertSuccess(Map<String, Object> response) {
+        assertEquals(String.valueOf(response.get("message")), Boolean.TRUE, response.get("success"));
+    }
+
+    private static Map<String, Object> forecast(int days) {
+        List<Object> daily = new ArrayList<>();
+        for (int i = 0; i < days; i++) {
+            Map<String, Object> day = new HashMap<>();
+            day.put("fxDate", "2026-10-" + (10 + i));
+            day.put("sunrise", "06:1" + i);
+            day.put("sunset", "17:4" + i);
+            day.put("tempMax", String.valueOf(20 + i));
+            day.put("tempMin", String.valueOf(10 + i));
+            day.put("iconDay", "100");
+            day.put("textDay", "晴");
+            day.put("iconNight", "151");
+            day.put("textNight", "多云");
+            day.put("windDirDay", "东北风");
+            day.put("windScaleDay", "1-3");
+            day.put("humidity", String.valueOf(40 + i));
+            day.put("precip", "0.0");
+            day.put("pressure", "1015");
+            day.put("uvIndex", "4");
+            daily.add(day);
+        }
+        Map<String, Object> data = new HashMap<>();
+        data.put("code", "200");
+        data.put("updateTime", "2026-10-10T08:00+08:00");
+        data.put("location", "北京");
+        data.put("daily", daily);
+        return data;
+    }
+
+    private static final class CapturedResult implements MethodChannel.Result {
+        Object response;
+        boolean done;
+
+        @Override
+        public void success(Object result) {
+            response = result;
+            done = true;
+        }
+
+        @Override
+        public void error(@NonNull String errorCode, String errorMessage, Object errorDetails) {
+            fail("不应返回通道错误: " + errorCode);
+        }
+
+        @Override
+        public void notImplemented() {
+            fail("方法未实现");
+        }
+    }
+}
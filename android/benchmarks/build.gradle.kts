@@ -0,0 +1,45 @@
+// 纯 JVM 基准测试：直接编译 app 中不依赖运行时 Android 行为的类，在桌面 JVM 上用 JMH 测量
+// 运行：./gradlew :benchmarks:jmh，结果写入 build/reports/jmh/results.json
+plugins {
+    java
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+sourceSets {
+    main {
+        java {
+            srcDir("../app/src/main/java")
+            include(
+                "com/application/zaona/weather/WearableErrorManager.java",
+                "com/application/zaona/weather/WeatherPayloadEncoder.java",
+                "com/application/zaona/weather/WeatherSyncState.java"
+            )
+        }
+    }
+}
+
+dependencies {
+    // 仅用于编译期解析 android.* 与 org.json 引用；运行时需要的 TextUtils 由 jmh 源码集提供
+    compileOnly("com.google.android:android:4.1.1.4")
+    // android.jar 中的 org.json 只是编译桩，WeatherSyncState 运行时需要真实实现
+    jmh("org.json:json:20240303")
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+jmh {
+    jmhVersion.set("1.37")
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    // gc 分析器输出 gc.alloc.rate 与 gc.alloc.rate.norm（每次操作分配的字节数）
+    profilers.add("gc")
+    resultFormat.set("JSON")
+}
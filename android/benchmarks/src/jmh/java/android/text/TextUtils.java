@@ -0,0 +1,20 @@
+package android.text;
+
+/**
+ * 桌面 JVM 上替代 android.jar 中的同名桩类，只实现被测代码用到的方法
+ */
+public final class TextUtils {
+    private TextUtils() {
+    }
+
+    public static boolean isEmpty(CharSequence text) {
+        return text == null || text.length() == 0;
+    }
+
+    public static boolean equals(CharSequence a, CharSequence b) {
+        if (a == b) {
+            return true;
+        }
+        return a != null && b != null && a.toString().equals(b.toString());
+    }
+}
@@ -0,0 +1,73 @@
+package com.application.zaona.weather;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 天气数据在原生层的编解码开销：sendMessage 的 UTF-8 编码、消息监听的 UTF-8 解码，
+ * 以及二进制帧的完整快照和增量补丁编码
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PayloadCodecBenchmark {
+    @Param({"3", "7", "15", "30"})
+    public int days;
+
+    private Map<String, Object> forecast;
+    private String json;
+    private byte[] jsonBytes;
+    private WeatherSyncState.Snapshot base;
+    private WeatherSyncState.Snapshot next;
+    private Map<String, Object> changed;
+
+    @Setup
+    public void setUp() {
+        forecast = QWeatherFixtures.forecast(days);
+        json = QWeatherFixtures.toJson(forecast);
+        jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+        changed = QWeatherFixtures.forecastWithChangedFirstDay(days);
+        base = WeatherSyncState.fingerprint(forecast, 1);
+        next = WeatherSyncState.fingerprint(changed, 2);
+    }
+
+    @Benchmark
+    public byte[] utf8Encode() {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String utf8Decode() {
+        return new String(jsonBytes, StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] encodeFrame() {
+        return WeatherPayloadEncoder.encode(forecast, 1, false);
+    }
+
+    @Benchmark
+    public byte[] encodeFrameCompressed() {
+        return WeatherPayloadEncoder.encode(forecast, 1, true);
+    }
+
+    @Benchmark
+    public byte[] encodePatch() {
+        return WeatherPayloadEncoder.encodePatch(changed, base, next, true);
+    }
+
+    @Benchmark
+    public WeatherSyncState.Snapshot fingerprint() {
+        return WeatherSyncState.fingerprint(forecast, 1);
+    }
+}
@@ -0,0 +1,130 @@
+package com.application.zaona.weather;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按和风天气 /v7/weather/{n}d 响应结构生成的测试数据，字段取值在真实范围内循环变化
+ */
+final class QWeatherFixtures {
+    private static final String[] TEXTS = {"晴", "多云", "阴", "小雨", "中雨", "雷阵雨", "小雪", "雾"};
+    private static final String[] ICONS = {"100", "101", "104", "305", "306", "302", "400", "501"};
+    private static final String[] WIND_DIRS = {"北风", "东北风", "东风", "东南风", "南风", "西南风", "西风", "西北风"};
+    private static final String[] MOON_PHASES = {"新月", "蛾眉月", "上弦月", "盈凸月", "满月", "亏凸月", "下弦月", "残月"};
+
+    private QWeatherFixtures() {
+    }
+
+    static Map<String, Object> forecast(int days) {
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("code", "200");
+        root.put("updateTime", "2024-06-01T10:35+08:00");
+        root.put("fxLink", "https://www.qweather.com/weather/beijing-101010100.html");
+        root.put("location", "101010100");
+        List<Map<String, Object>> daily = new ArrayList<>(days);
+        LocalDate start = LocalDate.of(2024, 6, 1);
+        for (int i = 0; i < days; i++) {
+            daily.add(day(start.plusDays(i), i));
+        }
+        root.put("daily", daily);
+        return root;
+    }
+
+    /**
+     * 与 forecast 相同，但第一天的最高温不同，用于增量补丁
+     */
+    static Map<String, Object> forecastWithChangedFirstDay(int days) {
+        Map<String, Object> root = forecast(days);
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> daily = (List<Map<String, Object>>) root.get("daily");
+        daily.get(0).put("tempMax", "35");
+        return root;
+    }
+
+    private static Map<String, Object> day(LocalDate date, int i) {
+        int k = i % TEXTS.length;
+        Map<String, Object> day = new LinkedHashMap<>();
+        day.put("fxDate", date.toString());
+        day.put("sunrise", "04:4" + (i % 10));
+        day.put("sunset", "19:3" + (i % 10));
+        day.put("moonrise", "0" + (i % 10) + ":12");
+        day.put("moonset", "1" + (i % 10) + ":48");
+        day.put("moonPhase", MOON_PHASES[i % MOON_PHASES.length]);
+        day.put("moonPhaseIcon", String.valueOf(800 + i % 8));
+        day.put("tempMax", String.valueOf(24 + i % 9));
+        day.put("tempMin", String.valueOf(14 + i % 7));
+        day.put("iconDay", ICONS[k]);
+        day.put("textDay", TEXTS[k]);
+        day.put("iconNight", ICONS[(k + 1) % ICONS.length]);
+        day.put("textNight", TEXTS[(k + 1) % TEXTS.length]);
+        day.put("wind360Day", String.valueOf(i * 45 % 360));
+        day.put("windDirDay", WIND_DIRS[i % WIND_DIRS.length]);
+        day.put("windScaleDay", "1-3");
+        day.put("windSpeedDay", String.valueOf(3 + i % 10));
+        day.put("wind360Night", String.valueOf((i * 45 + 90) % 360));
+        day.put("windDirNight", WIND_DIRS[(i + 2) % WIND_DIRS.length]);
+        day.put("windScaleNight", "1-3");
+        day.put("windSpeedNight", String.valueOf(2 + i % 8));
+        day.put("humidity", String.valueOf(40 + i % 50));
+        day.put("precip", i % 3 == 0 ? "0.0" : "1.2");
+        day.put("pressure", String.valueOf(1000 + i % 20));
+        day.put("vis", String.valueOf(20 + i % 5));
+        day.put("cloud", String.valueOf(i * 7 % 100));
+        day.put("uvIndex", String.valueOf(i % 11));
+        return day;
+    }
+
+    /**
+     * 与 Dart 端 jsonEncode 输出等价的 JSON 文本，即 sendMessage 收到的字符串
+     */
+    static String toJson(Object value) {
+        StringBuilder out = new StringBuilder(2048);
+        writeJson(out, value);
+        return out.toString();
+    }
+
+    private static void writeJson(StringBuilder out, Object value) {
+        if (value instanceof Map) {
+            out.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                writeString(out, String.valueOf(entry.getKey()));
+                out.append(':');
+                writeJson(out, entry.getValue());
+            }
+            out.append('}');
+        } else if (value instanceof List) {
+            out.append('[');
+            boolean first = true;
+            for (Object item : (List<?>) value) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                writeJson(out, item);
+            }
+            out.append(']');
+        } else {
+            writeString(out, String.valueOf(value));
+        }
+    }
+
+    private static void writeString(StringBuilder out, String text) {
+        out.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+}
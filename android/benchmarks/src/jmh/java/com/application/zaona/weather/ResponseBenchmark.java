@@ -0,0 +1,55 @@
+package com.application.zaona.weather;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 返回给 Dart 的响应构建开销：缓存的成功/错误响应、带异常详情的错误响应和设备信息 Map
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseBenchmark {
+    private final Exception error = new IllegalStateException("send failed: remote node not reachable");
+    private final Map<String, Object> cachedNode = WearableErrorManager.createNodeData("node-1", "Xiaomi Watch S3");
+
+    @Benchmark
+    public Map<String, Object> successCached() {
+        return WearableErrorManager.createSuccess("消息发送成功", null);
+    }
+
+    @Benchmark
+    public Map<String, Object> successWithData() {
+        return WearableErrorManager.createSharedSuccess("设备连接成功", cachedNode);
+    }
+
+    @Benchmark
+    public Map<String, Object> errorCached() {
+        return WearableErrorManager.createError(WearableErrorManager.CODE_MESSAGE_ERROR, null, null);
+    }
+
+    @Benchmark
+    public Map<String, Object> errorWithException() {
+        return WearableErrorManager.createError(WearableErrorManager.CODE_MESSAGE_ERROR, error, null);
+    }
+
+    @Benchmark
+    public Map<String, Object> paramError() {
+        return WearableErrorManager.createParamError("消息内容");
+    }
+
+    /**
+     * WearableSdkManager.buildNodeMap 未命中缓存时的构建开销
+     */
+    @Benchmark
+    public Map<String, Object> nodeMapFresh() {
+        return WearableErrorManager.createNodeData("node-1", "Xiaomi Watch S3");
+    }
+}
@@ -70,7 +70,7 @@ class WearableCommunicationPage extends StatefulWidget {
   State<WearableCommunicationPage> createState() => _WearableCommunicationPageState();
 }
 
-class _WearableCommunicationPageState extends State<WearableCommunicationPage> with WidgetsBindingObserver {
+class _WearableCommunicationPageState extends State<WearableCommunicationPage> {
   bool _isConnecting = false;
   bool _isConnected = false;
   String _deviceId = '';
@@ -94,9 +94,6 @@ class _WearableCommunicationPageState extends State<WearableCommunicationPage> w
   // FAB 按钮设置
   FabActionType _fabActionType = FabActionType.sync;
   
-  // 预检相关
-  bool _isReadyReceived = false;
-  
   // 兼容模式
   bool _compatibilityMode = false;
 
@@ -104,12 +101,6 @@ class _WearableCommunicationPageState extends State<WearableCommunicationPage> w
   void initState() {
     super.initState();
     
-    // 添加生命周期观察者
-    WidgetsBinding.instance.addObserver(this);
-    
-    // 设置消息监听回调
-    WearableService.setMessageCallback(_onMessageReceived);
-    
     // 初始化各项功能
     _loadAppVersion();
     _autoConnect();
@@ -118,16 +109,6 @@ class _WearableCommunicationPageState extends State<WearableCommunicationPage> w
     _loadFabActionType();
   }
 
-  @override
-  void didChangeAppLifecycleState(AppLifecycleState state) {
-    super.didChangeAppLifecycleState(state);
-    
-    // 当应用恢复时，重新设置消息回调
-    if (state == AppLifecycleState.resumed) {
-      WearableService.setMessageCallback(_onMessageReceived);
-    }
-  }
-
   /// 加载应用版本信息
   Future<void> _loadAppVersion() async {
     final version = await UpdateService.getVersionName();
@@ -138,14 +119,6 @@ class _WearableCommunicationPageState extends State<WearableCommunicationPage> w
     }
   }
 
-  /// 消息接收处理
-  void _onMessageReceived(String message) {
-    // 检查消息是否包含ready
-    if (message.contains('ready')) {
-      _isReadyReceived = true;
-    }
-  }
-
   /// 统一的更新检查方法
   /// [showLoading] 是否显示加载提示
   /// [showError] 是否显示网络错误提示
@@ -229,7 +202,14 @@ class _WearableCommunicationPageState extends State<WearableCommunicationPage> w
         _selectedForecastDays = forecastDays;
       });
       
-      // 不自动获取天气数据，等待用户主动点击按钮时再获取
+      // 不主动请求网络，有本地缓存时直接显示，最新数据等待用户点击按钮时再获取
+      final location = _selectedLocation!;
+      final cached = await WeatherService.loadCachedWeather(location.id, location.name, forecastDays);
+      if (cached != null && mounted && _weatherData == null && _selectedLocation == location) {
+        setState(() {
+          _weatherData = cached;
+        });
+      }
     }
   }
 
@@ -304,7 +284,6 @@ class _WearableCommunicationPageState extends State<WearableCommunicationPage> w
   /// 兼容模式：直接发送数据
   Future<void> _sendWeatherDataDirectly() async {
     // 在发送前临时注册监听
-    WearableService.setMessageCallback(_onMessageReceived);
     try {
       await WearableService.startListening();
     } catch (e) {
@@ -334,8 +313,11 @@ class _WearableCommunicationPageState extends State<WearableCommunicationPage> w
     );
 
     try {
-      // 直接发送天气数据
-      await WearableService.sendMessage(_weatherData!.toJsonString());
+      // 原生层直接序列化天气数据，不在 Dart 端拼接 JSON 字符串
+      final result = await WearableService.sendWeatherJson(_weatherData!.toPayloadMap());
+      if (!result.success) {
+        throw Exception(result.message.isNotEmpty ? result.message : '发送失败');
+      }
       
       // 关闭进度对话框
       if (mounted) Navigator.of(context).pop();
@@ -397,53 +379,12 @@ class _WearableCommunicationPageState extends State<WearableCommunicationPage> w
     );
 
     try {
-      // 重新设置消息监听回调（防止被其他页面覆盖）
-      WearableService.setMessageCallback(_onMessageReceived);
-      
-      // 确保消息监听已启动（异步完成后即可用）
-      try {
-        await WearableService.startListening();
-      } catch (e) {
-        // 监听服务可能已经启动，忽略错误
-      }
-      
-      // 重置ready标志并启动快应用
-      _isReadyReceived = false;
-      await WearableService.launchWearApp();
-      
-      // 预检握手流程（高频握手自动处理启动等待）
-      const sendInterval = Duration(milliseconds: 600);
-      const checkInterval = Duration(milliseconds: 50);
-      const maxAttempts = 15;
-      int attempts = 0;
-      
-      while (attempts < maxAttempts && !_isReadyReceived) {
-        attempts++;
-        
-        try {
-          await WearableService.sendMessage('start');
-        } catch (e) {
-          // 发送失败，继续尝试
-        }
-        
-        // 频繁检查ready响应
-        final checksPerSecond = sendInterval.inMilliseconds ~/ checkInterval.inMilliseconds;
-        for (int i = 0; i < checksPerSecond && !_isReadyReceived; i++) {
-          await Future.delayed(checkInterval);
-          if (_isReadyReceived) break;
-        }
-        
-        if (_isReadyReceived) break;
-      }
-      
-      // 检查是否成功收到ready消息
-      if (!_isReadyReceived) {
-        throw Exception('手表应用未响应');
+      // 由原生层完成启动快应用、start/ready 握手与数据发送
+      final result = await WearableService.syncWeatherWithHandshake(_weatherData!.toPayloadMap());
+      if (!result.success) {
+        throw Exception(result.message.isNotEmpty ? result.message : '同步失败');
       }
       
-      // 发送天气数据（收到ready后立即发送）
-      await WearableService.sendMessage(_weatherData!.toJsonString());
-      
       // 关闭进度对话框
       if (mounted) Navigator.of(context).pop();
       
@@ -469,13 +410,6 @@ class _WearableCommunicationPageState extends State<WearableCommunicationPage> w
           iconColor: Theme.of(context).colorScheme.error,
         );
       }
-    } finally {
-      // 无论成功或失败，发送流程结束后注销监听
-      try {
-        await WearableService.stopListening();
-      } catch (e) {
-        // 忽略停止监听失败：可能监听未启动或已被系统回收
-      }
     }
   }
 
@@ -560,8 +494,6 @@ class _WearableCommunicationPageState extends State<WearableCommunicationPage> w
 
   @override
   void dispose() {
-    // 移除生命周期观察者
-    WidgetsBinding.instance.removeObserver(this);
     // 停止消息监听，避免泄漏
     WearableService.stopListening();
     super.dispose();
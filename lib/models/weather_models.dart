@@ -54,12 +54,15 @@ class WeatherData {
   /// 转换为 JSON 字符串（用于发送到手表）
   /// 与 Vue 代码逻辑一致：将原始数据展开，然后添加 location 字段
   String toJsonString() {
-    // 将地名作为 location 字段添加到数据中
-    final enhancedData = {
+    return jsonToString(toPayloadMap());
+  }
+
+  /// 发送到手表的数据结构：原始数据展开后附加 location 字段
+  Map<String, dynamic> toPayloadMap() {
+    return {
       ...rawData,
       'location': location,
     };
-    return jsonToString(enhancedData);
   }
 
   static String jsonToString(dynamic data) {
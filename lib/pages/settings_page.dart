@@ -4,6 +4,7 @@ import '../services/settings_service.dart';
 import '../services/update_service.dart';
 import '../dialogs/update_dialog.dart';
 import '../services/weather_service.dart';
+import '../wearable_service.dart';
 
 /// 设置页面
 class SettingsPage extends StatefulWidget {
@@ -18,6 +19,7 @@ class _SettingsPageState extends State<SettingsPage> {
   bool _isCheckingUpdate = false;
   bool _isUsingCustomApi = false;
   bool _compatibilityMode = true;
+  bool _backgroundSync = false;
 
   @override
   void initState() {
@@ -30,10 +32,32 @@ class _SettingsPageState extends State<SettingsPage> {
     final fabType = await SettingsService.loadFabActionType();
     final useCustomApi = await SettingsService.isUsingCustomApi();
     final compatibilityMode = await SettingsService.loadCompatibilityMode();
+    final backgroundSync = await SettingsService.loadBackgroundSync();
     setState(() {
       _fabActionType = fabType;
       _isUsingCustomApi = useCustomApi;
       _compatibilityMode = compatibilityMode;
+      _backgroundSync = backgroundSync;
+    });
+  }
+
+  /// 切换后台定时同步
+  Future<void> _toggleBackgroundSync(bool enabled) async {
+    final result = enabled
+        ? await WearableService.schedulePeriodicSync()
+        : await WearableService.cancelPeriodicSync();
+    if (!result.success) {
+      if (mounted) {
+        ScaffoldMessenger.of(context).showSnackBar(
+          SnackBar(content: Text(result.message)),
+        );
+      }
+      return;
+    }
+
+    await SettingsService.saveBackgroundSync(enabled);
+    setState(() {
+      _backgroundSync = enabled;
     });
   }
 
@@ -226,6 +250,18 @@ class _SettingsPageState extends State<SettingsPage> {
             },
           ),
           
+          // 后台定时同步开关
+          SwitchListTile(
+            secondary: Icon(
+              Icons.schedule,
+              color: colorScheme.primary,
+            ),
+            title: const Text('后台定时同步'),
+            subtitle: const Text('每小时自动获取天气并同步到手表'),
+            value: _backgroundSync,
+            onChanged: _toggleBackgroundSync,
+          ),
+          
           // FAB 按钮功能选择
           ListTile(
             leading: Icon(
@@ -30,6 +30,7 @@ class _WeatherPageState extends State<WeatherPage> {
     super.initState();
     _loadRecentSearches();
     _loadRecentLocations();
+    WeatherService.prefetchRecentForecasts();
   }
 
   @override
@@ -13,6 +13,7 @@ class SdkTestController extends ChangeNotifier {
   String deviceInfo = '';
 
   final List<String> receivedMessages = [];
+  WearMetricsSnapshot? metrics;
 
   StreamSubscription<String>? _messageSubscription;
   StreamSubscription<WearableServiceStatus>? _serviceSubscription;
@@ -133,6 +134,22 @@ class SdkTestController extends ChangeNotifier {
     );
   }
 
+  Future<void> refreshMetrics() async {
+    await _runOperation<WearMetricsSnapshot>(
+      actionName: '获取性能指标',
+      operation: WearableService.getMetrics,
+      onSuccess: (data) => metrics = data,
+    );
+  }
+
+  Future<void> resetMetrics() async {
+    await _runOperation<void>(
+      actionName: '重置性能指标',
+      operation: WearableService.resetMetrics,
+      onSuccess: (_) => metrics = null,
+    );
+  }
+
   void clearMessages() {
     receivedMessages.clear();
     notifyListeners();
@@ -640,6 +657,8 @@ class _SdkTestPageState extends State<SdkTestPage> {
                         ),
                       ),
                     ),
+                    const SizedBox(height: 16),
+                    _buildMetricsCard(isLoading),
                   ],
                 ),
               ),
@@ -650,6 +669,67 @@ class _SdkTestPageState extends State<SdkTestPage> {
     );
   }
 
+  Card _buildMetricsCard(bool isLoading) {
+    final metrics = _controller.metrics;
+    final textTheme = Theme.of(context).textTheme;
+    final monospace = textTheme.bodySmall?.copyWith(fontFamily: 'monospace');
+
+    return Card(
+      child: Padding(
+        padding: const EdgeInsets.all(16),
+        child: Column(
+          crossAxisAlignment: CrossAxisAlignment.start,
+          children: [
+            Text(
+              '性能指标',
+              style: textTheme.titleMedium,
+            ),
+            const SizedBox(height: 12),
+            if (metrics == null)
+              Text('暂无数据，点击刷新获取', style: textTheme.bodyMedium)
+            else ...[
+              Text(
+                '统计时长 ${metrics.window.inSeconds}s · 发送 ${metrics.messagesSent} 条/${metrics.bytesSent} B'
+                ' · 接收 ${metrics.messagesReceived} 条/${metrics.bytesReceived} B',
+                style: textTheme.bodySmall,
+              ),
+              const SizedBox(height: 8),
+              for (final op in metrics.operations)
+                Padding(
+                  padding: const EdgeInsets.only(bottom: 4),
+                  child: Text(
+                    '${op.name}: ${op.count} 次, 失败 ${op.failures}, '
+                    'p50 ${op.p50.inMilliseconds}ms, p95 ${op.p95.inMilliseconds}ms, '
+                    'max ${op.max.inMilliseconds}ms',
+                    style: monospace,
+                  ),
+                ),
+              if (metrics.failuresByCode.isNotEmpty) ...[
+                const SizedBox(height: 8),
+                Text(
+                  '失败分布: ${metrics.failuresByCode.entries.map((e) => '${e.key}=${e.value}').join(', ')}',
+                  style: textTheme.bodySmall,
+                ),
+              ],
+            ],
+            const SizedBox(height: 12),
+            _buildOutlinedButton(
+              label: '刷新指标',
+              icon: Icons.insights,
+              onPressed: isLoading ? null : () => _controller.refreshMetrics(),
+            ),
+            const SizedBox(height: 8),
+            _buildOutlinedButton(
+              label: '重置指标',
+              icon: Icons.restart_alt,
+              onPressed: isLoading ? null : () => _controller.resetMetrics(),
+            ),
+          ],
+        ),
+      ),
+    );
+  }
+
   FilledButton _buildActionButton({
     required String label,
     required IconData icon,
@@ -0,0 +1,131 @@
+import 'package:flutter/services.dart';
+
+/// 原生层和风天气请求（Android），复用连接并支持 gzip 与条件请求
+///
+/// 返回 null 表示原生通道不可用，调用方应回退到 Dart 端请求；
+/// HTTP 层错误以与 Dart 端一致的文案抛出 Exception。
+class NativeWeatherClient {
+  static const MethodChannel _channel = MethodChannel('wearable_message_channel');
+  static const String _requestFailedCode = 'WEATHER_REQUEST_FAILED';
+
+  // 首次发现原生通道不可用后不再尝试
+  static bool _unavailable = false;
+
+  /// 预报原始 JSON，原生层缓存新鲜时不发请求
+  ///
+  /// [allowStale] 为 true 时过期缓存立即返回并在后台更新；否则请求失败时抛出异常，不返回旧数据
+  static Future<NativeForecast?> fetchForecast(String location, String days, {bool allowStale = false}) async {
+    final data = await _invoke('fetchWeather', {'location': location, 'days': days, 'allowStale': allowStale});
+    return data is Map ? NativeForecast.fromMap(data) : null;
+  }
+
+  /// 只读取原生层缓存，不等待网络；没有可用缓存时返回 null
+  static Future<NativeForecast?> getCachedForecast(String location, String days) async {
+    final data = await _invoke('getCachedWeather', {'location': location, 'days': days});
+    return data is Map ? NativeForecast.fromMap(data) : null;
+  }
+
+  /// 城市搜索或经纬度反查的原始 JSON
+  static Future<String?> lookupCity(String location) async {
+    final data = await _invoke('lookupCity', {'location': location});
+    return data is String ? data : null;
+  }
+
+  /// 经纬度反查城市的原始 JSON，原生层按约 1 km 网格缓存结果，附近位置不再请求接口
+  static Future<String?> reverseGeocode(String coordinates) async {
+    final data = await _invoke('reverseGeocode', {'coordinates': coordinates});
+    return data is String ? data : null;
+  }
+
+  /// 并行获取预报和所在城市，返回 weather 与 city（反查失败时为 null）两段原始 JSON
+  static Future<({String weather, String? city})?> fetchForecastWithCity(String coordinates, String days) async {
+    final data = await _invoke('fetchWeatherByCoordinates', {'coordinates': coordinates, 'days': days});
+    if (data is! Map || data['weather'] is! String) {
+      return null;
+    }
+    return (weather: data['weather'] as String, city: data['city'] as String?);
+  }
+
+  /// 并行预取当前位置和最近使用的城市（最多 [limit] 个）写入原生缓存，切换城市时可直接使用
+  ///
+  /// [pushToWatch] 为 true 时把成功的结果打包，作为一次传输发送到手表
+  static Future<List<PrefetchedLocation>?> prefetchForecasts({int limit = 5, bool pushToWatch = false}) async {
+    final data = await _invoke('prefetchForecasts', {'limit': limit, 'push': pushToWatch});
+    if (data is! Map || data['locations'] is! List) {
+      return null;
+    }
+    return (data['locations'] as List)
+        .map((item) => PrefetchedLocation.fromMap(item as Map<dynamic, dynamic>))
+        .toList();
+  }
+
+  static Future<dynamic> _invoke(String method, Map<String, dynamic> arguments) async {
+    if (_unavailable) {
+      return null;
+    }
+    final dynamic raw;
+    try {
+      raw = await _channel.invokeMethod<dynamic>(method, arguments);
+    } on MissingPluginException {
+      _unavailable = true;
+      return null;
+    } on PlatformException {
+      return null;
+    }
+    if (raw is! Map) {
+      return null;
+    }
+    if (raw['success'] == true) {
+      return raw['data'];
+    }
+    if (raw['code'] == _requestFailedCode) {
+      throw Exception(raw['message'] ?? '网络连接失败，请检查您的网络连接或稍后重试');
+    }
+    return null;
+  }
+}
+
+class NativeForecast {
+  const NativeForecast({
+    required this.body,
+    required this.fetchedAt,
+    required this.stale,
+  });
+
+  final String body;
+  final DateTime fetchedAt;
+
+  /// 数据已过新鲜期，原生层正在后台更新（只在 allowStale 或只读缓存时出现）
+  final bool stale;
+
+  factory NativeForecast.fromMap(Map<dynamic, dynamic> map) {
+    return NativeForecast(
+      body: map['body'] as String,
+      fetchedAt: DateTime.fromMillisecondsSinceEpoch((map['fetchedAt'] as num?)?.toInt() ?? 0),
+      stale: map['stale'] == true,
+    );
+  }
+}
+
+class PrefetchedLocation {
+  const PrefetchedLocation({
+    required this.id,
+    required this.name,
+    required this.success,
+    this.message,
+  });
+
+  final String id;
+  final String name;
+  final bool success;
+  final String? message;
+
+  factory PrefetchedLocation.fromMap(Map<dynamic, dynamic> map) {
+    return PrefetchedLocation(
+      id: map['id'] as String? ?? '',
+      name: map['name'] as String? ?? '',
+      success: map['success'] == true,
+      message: map['message'] as String?,
+    );
+  }
+}
@@ -14,6 +14,7 @@ class SettingsService {
   static const String _customApiHostKey = 'custom_api_host';
   static const String _useCustomApiKey = 'use_custom_api';
   static const String _compatibilityModeKey = 'compatibility_mode';
+  static const String _backgroundSyncKey = 'background_sync';
   
   /// 保存 FAB 按钮动作类型
   static Future<void> saveFabActionType(FabActionType type) async {
@@ -84,5 +85,16 @@ class SettingsService {
     final prefs = await SharedPreferences.getInstance();
     return prefs.getBool(_compatibilityModeKey) ?? true;
   }
+  
+  /// 保存后台定时同步设置
+  static Future<void> saveBackgroundSync(bool enabled) async {
+    final prefs = await SharedPreferences.getInstance();
+    await prefs.setBool(_backgroundSyncKey, enabled);
+  }
+  
+  /// 读取后台定时同步设置，默认为关闭
+  static Future<bool> loadBackgroundSync() async {
+    final prefs = await SharedPreferences.getInstance();
+    return prefs.getBool(_backgroundSyncKey) ?? false;
+  }
 }
-
@@ -3,6 +3,7 @@ import 'package:http/http.dart' as http;
 import 'package:shared_preferences/shared_preferences.dart';
 import 'package:flutter_dotenv/flutter_dotenv.dart';
 import '../models/weather_models.dart';
+import 'native_weather_client.dart';
 import 'settings_service.dart';
 
 /// 天气服务类
@@ -174,29 +175,8 @@ class WeatherService {
     }
 
     try {
-      final apiUrl = await getGeoApiUrl();
-      final key = await getApiKey();
-      final uri = Uri.parse('$apiUrl?location=${Uri.encodeComponent(cityName)}');
-      
-      final response = await http.get(
-        uri,
-        headers: {
-          'X-QW-Api-Key': key,
-          'Content-Type': 'application/json',
-          'X-Android-Package-Name': androidPackageName,
-          'X-Android-Cert': androidCertSha1,
-        },
-      );
-
-      if (response.statusCode == 401) {
-        throw Exception('API密钥无效或已过期');
-      } else if (response.statusCode == 429) {
-        throw Exception('请求过于频繁，请稍后再试');
-      } else if (response.statusCode != 200) {
-        throw Exception('请求失败，状态码: ${response.statusCode}，响应: ${response.body}');
-      }
-
-      final data = json.decode(response.body);
+      final body = await NativeWeatherClient.lookupCity(cityName) ?? await _getGeoBody(cityName);
+      final data = json.decode(body);
 
       if (data['code'] == '200' && data['location'] != null && (data['location'] as List).isNotEmpty) {
         return (data['location'] as List)
@@ -225,39 +205,9 @@ class WeatherService {
     }
 
     try {
-      final apiUrl = await getWeatherApiBaseUrl();
-      final key = await getApiKey();
-      final uri = Uri.parse('$apiUrl/$days?location=$location');
-      
-      final response = await http.get(
-        uri,
-        headers: {
-          'X-QW-Api-Key': key,
-          'Content-Type': 'application/json',
-          'X-Android-Package-Name': androidPackageName,
-          'X-Android-Cert': androidCertSha1,
-        },
-      );
-
-      if (response.statusCode == 401) {
-        throw Exception('API密钥无效或已过期');
-      } else if (response.statusCode == 429) {
-        throw Exception('请求过于频繁，请稍后再试');
-      } else if (response.statusCode == 404) {
-        throw Exception('该地区天气信息不可用');
-      } else if (response.statusCode != 200) {
-        throw Exception('请求失败，状态码: ${response.statusCode}，响应: ${response.body}');
-      }
-
-      final data = json.decode(response.body);
-
-      if (data['code'] == '200') {
-        return WeatherData.fromJson(data, locationName);
-      } else if (data['code'] == '404') {
-        throw Exception('该地区天气信息不可用');
-      } else {
-        throw Exception('获取天气数据失败。返回码: ${data['code']}');
-      }
+      final cached = await NativeWeatherClient.fetchForecast(location, days);
+      final body = cached?.body ?? await _getForecastBody(location, days);
+      return _parseForecast(body, locationName);
     } catch (e) {
       if (e is Exception) {
         rethrow;
@@ -266,6 +216,91 @@ class WeatherService {
     }
   }
 
+  /// 读取原生层缓存的天气数据，不发起网络请求，无缓存或非 Android 平台时返回 null
+  static Future<WeatherData?> loadCachedWeather(String location, String locationName, String days) async {
+    if (location.isEmpty) {
+      return null;
+    }
+    try {
+      final cached = await NativeWeatherClient.getCachedForecast(location, days);
+      return cached != null ? _parseForecast(cached.body, locationName) : null;
+    } catch (e) {
+      return null;
+    }
+  }
+
+  /// 后台预取最近使用城市的预报，切换城市时直接命中原生缓存；失败不影响主流程
+  static Future<void> prefetchRecentForecasts() async {
+    try {
+      await NativeWeatherClient.prefetchForecasts(limit: maxRecentLocations);
+    } catch (e) {
+      // 预取失败时切换城市按原流程请求
+    }
+  }
+
+  static WeatherData _parseForecast(String body, String locationName) {
+    final data = json.decode(body);
+
+    if (data['code'] == '200') {
+      return WeatherData.fromJson(data, locationName);
+    } else if (data['code'] == '404') {
+      throw Exception('该地区天气信息不可用');
+    } else {
+      throw Exception('获取天气数据失败。返回码: ${data['code']}');
+    }
+  }
+
+  /// Dart 端预报请求，原生通道不可用时使用
+  static Future<String> _getForecastBody(String location, String days) async {
+    final apiUrl = await getWeatherApiBaseUrl();
+    final uri = Uri.parse('$apiUrl/$days?location=$location');
+    final response = await http.get(uri, headers: await _headers());
+
+    if (response.statusCode == 401) {
+      throw Exception('API密钥无效或已过期');
+    } else if (response.statusCode == 429) {
+      throw Exception('请求过于频繁，请稍后再试');
+    } else if (response.statusCode == 404) {
+      throw Exception('该地区天气信息不可用');
+    } else if (response.statusCode != 200) {
+      throw Exception('请求失败，状态码: ${response.statusCode}，响应: ${response.body}');
+    }
+    return response.body;
+  }
+
+  /// Dart 端城市查询，原生通道不可用时使用
+  static Future<String> _getGeoBody(String location) async {
+    final apiUrl = await getGeoApiUrl();
+    final uri = Uri.parse('$apiUrl?location=${Uri.encodeComponent(location)}');
+    final response = await http.get(uri, headers: await _headers());
+
+    if (response.statusCode == 401) {
+      throw Exception('API密钥无效或已过期');
+    } else if (response.statusCode == 429) {
+      throw Exception('请求过于频繁，请稍后再试');
+    } else if (response.statusCode != 200) {
+      throw Exception('请求失败，状态码: ${response.statusCode}，响应: ${response.body}');
+    }
+    return response.body;
+  }
+
+  static Future<Map<String, String>> _headers() async {
+    return {
+      'X-QW-Api-Key': await getApiKey(),
+      'Content-Type': 'application/json',
+      'X-Android-Package-Name': androidPackageName,
+      'X-Android-Cert': androidCertSha1,
+    };
+  }
+
+  static CityLocation? _parseFirstCity(String body) {
+    final data = json.decode(body);
+    if (data['code'] == '200' && data['location'] != null && (data['location'] as List).isNotEmpty) {
+      return CityLocation.fromJson(data['location'][0]);
+    }
+    return null;
+  }
+
   /// 通过经纬度获取城市信息
   /// [coordinates] 格式：经度,纬度（例如：116.41,39.92）
   static Future<CityLocation?> getCityByCoordinates(String coordinates) async {
@@ -274,31 +309,9 @@ class WeatherService {
     }
 
     try {
-      final apiUrl = await getGeoApiUrl();
-      final key = await getApiKey();
-      final uri = Uri.parse('$apiUrl?location=$coordinates');
-      
-      final response = await http.get(
-        uri,
-        headers: {
-          'X-QW-Api-Key': key,
-          'Content-Type': 'application/json',
-          'X-Android-Package-Name': androidPackageName,
-          'X-Android-Cert': androidCertSha1,
-        },
-      );
-
-      if (response.statusCode == 200) {
-        final data = json.decode(response.body);
-        
-        if (data['code'] == '200' && data['location'] != null && (data['location'] as List).isNotEmpty) {
-          // 返回第一个匹配的城市
-          return CityLocation.fromJson(data['location'][0]);
-        }
-      }
-      
-      // 如果查询失败，返回null，调用方可以使用默认名称
-      return null;
+      final body = await NativeWeatherClient.reverseGeocode(coordinates) ?? await _getGeoBody(coordinates);
+      // 返回第一个匹配的城市，查询失败时返回null，调用方可以使用默认名称
+      return _parseFirstCity(body);
     } catch (e) {
       // 反向地理编码失败不影响主流程，返回null
       return null;
@@ -323,15 +336,33 @@ class WeatherService {
       throw Exception('经纬度格式错误');
     }
 
-    // 确定位置名称
-    String locationName;
     if (cityName != null && cityName.isNotEmpty) {
-      locationName = cityName;
-    } else {
-      locationName = '当前位置 ($coordinates)';
+      return fetchWeather(coordinates, cityName, days);
+    }
+
+    // 未提供城市名称时，反向地理编码与预报请求并行进行
+    try {
+      final native = await NativeWeatherClient.fetchForecastWithCity(coordinates, days);
+      final String forecastBody;
+      CityLocation? city;
+      if (native != null) {
+        forecastBody = native.weather;
+        city = native.city != null ? _parseFirstCity(native.city!) : null;
+      } else {
+        final results = await Future.wait<Object?>([
+          _getForecastBody(coordinates, days),
+          getCityByCoordinates(coordinates),
+        ]);
+        forecastBody = results[0] as String;
+        city = results[1] as CityLocation?;
+      }
+      return _parseForecast(forecastBody, city?.name ?? '当前位置 ($coordinates)');
+    } catch (e) {
+      if (e is Exception) {
+        rethrow;
+      }
+      throw Exception('网络连接失败，请检查您的网络连接或稍后重试');
     }
-    
-    return fetchWeather(coordinates, locationName, days);
   }
 
   /// 加载历史搜索
@@ -10,11 +10,18 @@ class WearableService {
   static const String _channelName = 'wearable_message_channel';
   static const MethodChannel _channel = MethodChannel(_channelName);
 
+  // 批量数据使用二进制通道，避免字符串在通道两端的重复转码
+  static const String _payloadChannelName = 'wearable_payload_channel';
+  static const BasicMessageChannel<ByteData> _payloadChannel =
+      BasicMessageChannel<ByteData>(_payloadChannelName, BinaryCodec());
+
   bool _initialized = false;
 
   final StreamController<String> _messageController = StreamController<String>.broadcast();
   final StreamController<WearableServiceStatus> _serviceStatusController =
       StreamController<WearableServiceStatus>.broadcast();
+  final StreamController<WearTransferProgress> _transferProgressController =
+      StreamController<WearTransferProgress>.broadcast();
 
   StreamSubscription<String>? _singleCallbackSubscription;
 
@@ -31,6 +38,8 @@ class WearableService {
 
   static Stream<WearableServiceStatus> get serviceStatusStream => _instance._serviceStatusStream;
 
+  static Stream<WearTransferProgress> get transferProgressStream => _instance._transferProgressStream;
+
   static void setMessageCallback(Function(String) callback) => _instance._setMessageCallback(callback);
 
   static StreamSubscription<String> addMessageListener(void Function(String) listener) =>
@@ -39,12 +48,39 @@ class WearableService {
   static Future<WearableOperationResult<WearableNodeInfo>> getConnectedNodes() =>
       _instance._getConnectedNodes();
 
+  static Future<WearableOperationResult<List<WearableNodeInfo>>> getAllConnectedNodes() =>
+      _instance._getAllConnectedNodes();
+
   static Future<WearableOperationResult<List<String>>> requestPermissions() =>
       _instance._requestPermissions();
 
   static Future<WearableOperationResult<void>> sendMessage(String message) =>
       _instance._sendMessage(message);
 
+  static Future<WearableOperationResult<void>> sendPayloadBytes(Uint8List bytes) =>
+      _instance._sendPayloadBytes(bytes);
+
+  /// 兼容模式发送：原生层把天气数据直接序列化为 JSON，只保留手表使用的字段
+  static Future<WearableOperationResult<void>> sendWeatherJson(Map<String, dynamic> data) =>
+      _instance._sendWeatherJson(data);
+
+  static Future<WearableOperationResult<WearPayloadInfo>> sendWeatherPayload(
+    Map<String, dynamic> data, {
+    bool compress = true,
+    bool delta = false,
+    bool chunked = false,
+  }) =>
+      _instance._sendWeatherPayload(data, compress: compress, delta: delta, chunked: chunked);
+
+  static Future<WearableOperationResult<Map<String, WearableOperationResult<WearPayloadInfo>>>>
+      sendWeatherPayloadToAll(
+    Map<String, dynamic> data, {
+    bool compress = true,
+    bool delta = false,
+    bool chunked = false,
+  }) =>
+          _instance._sendWeatherPayloadToAll(data, compress: compress, delta: delta, chunked: chunked);
+
   static Future<WearableOperationResult<void>> sendNotification(String title, String message) =>
       _instance._sendNotification(title, message);
 
@@ -61,6 +97,33 @@ class WearableService {
   static Future<WearableOperationResult<void>> launchWearApp({String path = '/'}) =>
       _instance._launchWearApp(path: path);
 
+  /// [timeout] 为空时由原生层按设备的历史握手耗时决定
+  static Future<WearableOperationResult<WearSyncStats>> syncWithHandshake(
+    String payload, {
+    Duration? timeout,
+  }) =>
+      _instance._syncWithHandshake({'payload': payload}, timeout: timeout);
+
+  /// 握手同步天气数据，JSON 由原生层序列化
+  static Future<WearableOperationResult<WearSyncStats>> syncWeatherWithHandshake(
+    Map<String, dynamic> data, {
+    Duration? timeout,
+  }) =>
+      _instance._syncWithHandshake({'data': data}, timeout: timeout);
+
+  /// 开启原生后台定时同步，不需要打开应用界面
+  static Future<WearableOperationResult<WearBackgroundSyncStatus>> schedulePeriodicSync({
+    Duration interval = const Duration(hours: 1),
+  }) =>
+      _instance._schedulePeriodicSync(interval);
+
+  static Future<WearableOperationResult<WearBackgroundSyncStatus>> cancelPeriodicSync() =>
+      _instance._cancelPeriodicSync();
+
+  static Future<WearableOperationResult<WearMetricsSnapshot>> getMetrics() => _instance._getMetrics();
+
+  static Future<WearableOperationResult<void>> resetMetrics() => _instance._resetMetrics();
+
   static Future<WearConnectionResult> connectDevice() => _instance._connectDevice();
 
   // ---- instance implementation ----
@@ -75,6 +138,11 @@ class WearableService {
     return _serviceStatusController.stream;
   }
 
+  Stream<WearTransferProgress> get _transferProgressStream {
+    _ensureInitialized();
+    return _transferProgressController.stream;
+  }
+
   void _setMessageCallback(Function(String) callback) {
     _ensureInitialized();
     _singleCallbackSubscription?.cancel();
@@ -102,6 +170,20 @@ class WearableService {
     return result;
   }
 
+  Future<WearableOperationResult<List<WearableNodeInfo>>> _getAllConnectedNodes() async {
+    final result = await _invoke<List<WearableNodeInfo>>(
+      'getAllConnectedNodes',
+      parser: (raw) {
+        if (raw == null) return <WearableNodeInfo>[];
+        return (raw as List<dynamic>)
+            .map((item) => WearableNodeInfo.fromMap(Map<String, dynamic>.from(item as Map)))
+            .toList();
+      },
+    );
+
+    return result.map((list) => list ?? <WearableNodeInfo>[]);
+  }
+
   Future<WearableOperationResult<List<String>>> _requestPermissions() async {
     final result = await _invoke<List<String>>(
       'requestPermissions',
@@ -121,6 +203,99 @@ class WearableService {
     );
   }
 
+  Future<WearableOperationResult<void>> _sendWeatherJson(Map<String, dynamic> data) {
+    return _invoke<void>(
+      'sendWeatherJson',
+      arguments: {'data': data},
+    );
+  }
+
+  Future<WearableOperationResult<void>> _sendPayloadBytes(Uint8List bytes) async {
+    _ensureInitialized();
+
+    try {
+      final reply = await _payloadChannel.send(
+        bytes.buffer.asByteData(bytes.offsetInBytes, bytes.lengthInBytes),
+      );
+      final dynamic raw = reply == null ? null : const StandardMessageCodec().decodeMessage(reply);
+
+      if (raw is Map) {
+        return WearableOperationResult<void>.fromMap(Map<String, dynamic>.from(raw));
+      }
+
+      return const WearableOperationResult<void>(
+        success: false,
+        code: 'INVALID_RESPONSE',
+        message: '原生返回格式异常',
+        data: null,
+        hints: ['请重试操作'],
+        retryable: true,
+      );
+    } on PlatformException catch (e) {
+      return WearableOperationResult<void>(
+        success: false,
+        code: e.code,
+        message: e.message ?? '平台调用异常',
+        data: null,
+        hints: const ['请稍后重试'],
+        details: e.details?.toString() ?? e.message,
+        retryable: true,
+      );
+    }
+  }
+
+  Future<WearableOperationResult<WearPayloadInfo>> _sendWeatherPayload(
+    Map<String, dynamic> data, {
+    required bool compress,
+    required bool delta,
+    required bool chunked,
+  }) {
+    return _invoke<WearPayloadInfo>(
+      'sendWeatherPayload',
+      arguments: {
+        'data': data,
+        'compress': compress,
+        'delta': delta,
+        'chunked': chunked,
+      },
+      parser: (raw) {
+        if (raw == null) return null;
+        return WearPayloadInfo.fromMap(Map<String, dynamic>.from(raw as Map));
+      },
+    );
+  }
+
+  Future<WearableOperationResult<Map<String, WearableOperationResult<WearPayloadInfo>>>>
+      _sendWeatherPayloadToAll(
+    Map<String, dynamic> data, {
+    required bool compress,
+    required bool delta,
+    required bool chunked,
+  }) {
+    return _invoke<Map<String, WearableOperationResult<WearPayloadInfo>>>(
+      'sendWeatherPayloadToAll',
+      arguments: {
+        'data': data,
+        'compress': compress,
+        'delta': delta,
+        'chunked': chunked,
+      },
+      parser: (raw) {
+        if (raw == null) return const <String, WearableOperationResult<WearPayloadInfo>>{};
+        return Map<String, dynamic>.from(raw as Map).map(
+          (nodeId, response) => MapEntry(
+            nodeId,
+            WearableOperationResult<WearPayloadInfo>.fromMap(
+              Map<String, dynamic>.from(response as Map),
+              parser: (info) =>
+                  info == null ? null : WearPayloadInfo.fromMap(Map<String, dynamic>.from(info as Map)),
+            ),
+          ),
+        );
+      },
+    );
+  }
+
   Future<WearableOperationResult<void>> _sendNotification(String title, String message) {
     return _invoke<void>(
       'sendNotification',
@@ -178,6 +353,57 @@ class WearableService {
     );
   }
 
+  Future<WearableOperationResult<WearSyncStats>> _syncWithHandshake(
+    Map<String, dynamic> content, {
+    Duration? timeout,
+  }) {
+    return _invoke<WearSyncStats>(
+      'syncWithHandshake',
+      arguments: {
+        ...content,
+        if (timeout != null) 'timeoutMs': timeout.inMilliseconds,
+      },
+      parser: (raw) {
+        if (raw == null) return null;
+        return WearSyncStats.fromMap(Map<String, dynamic>.from(raw as Map));
+      },
+    );
+  }
+
+  Future<WearableOperationResult<WearBackgroundSyncStatus>> _schedulePeriodicSync(Duration interval) {
+    return _invoke<WearBackgroundSyncStatus>(
+      'schedulePeriodicSync',
+      arguments: {'intervalMinutes': interval.inMinutes},
+      parser: _parseBackgroundSyncStatus,
+    );
+  }
+
+  Future<WearableOperationResult<WearBackgroundSyncStatus>> _cancelPeriodicSync() {
+    return _invoke<WearBackgroundSyncStatus>(
+      'cancelPeriodicSync',
+      parser: _parseBackgroundSyncStatus,
+    );
+  }
+
+  WearBackgroundSyncStatus? _parseBackgroundSyncStatus(dynamic raw) {
+    if (raw == null) return null;
+    return WearBackgroundSyncStatus.fromMap(Map<String, dynamic>.from(raw as Map));
+  }
+
+  Future<WearableOperationResult<WearMetricsSnapshot>> _getMetrics() {
+    return _invoke<WearMetricsSnapshot>(
+      'getMetrics',
+      parser: (raw) {
+        if (raw == null) return null;
+        return WearMetricsSnapshot.fromMap(Map<String, dynamic>.from(raw as Map));
+      },
+    );
+  }
+
+  Future<WearableOperationResult<void>> _resetMetrics() {
+    return _invoke<void>('resetMetrics');
+  }
+
   Future<WearConnectionResult> _connectDevice() async {
     String currentStep = '';
 
@@ -293,10 +519,23 @@ class WearableService {
           _messageController.add(message);
         }
         break;
+      case 'onMessagesReceived':
+        // 原生层按帧合并的消息批次
+        final messages = call.arguments as List?;
+        if (messages != null) {
+          for (final message in messages) {
+            _messageController.add(message.toString());
+          }
+        }
+        break;
       case 'onServiceStatusChanged':
         final payload = Map<String, dynamic>.from(call.arguments as Map);
         _serviceStatusController.add(WearableServiceStatus.fromMap(payload));
         break;
+      case 'onTransferProgress':
+        final payload = Map<String, dynamic>.from(call.arguments as Map);
+        _transferProgressController.add(WearTransferProgress.fromMap(payload));
+        break;
       default:
         break;
     }
@@ -460,6 +699,34 @@ class WearableServiceStatus {
   }
 }
 
+class WearTransferProgress {
+  const WearTransferProgress({
+    required this.transferId,
+    required this.nodeId,
+    required this.acked,
+    required this.total,
+    required this.state,
+  });
+
+  final int transferId;
+  final String nodeId;
+  final int acked;
+  final int total;
+  final String state;
+
+  double get fraction => total == 0 ? 0 : acked / total;
+
+  factory WearTransferProgress.fromMap(Map<String, dynamic> map) {
+    return WearTransferProgress(
+      transferId: (map['transferId'] as num?)?.toInt() ?? 0,
+      nodeId: map['nodeId']?.toString() ?? '',
+      acked: (map['acked'] as num?)?.toInt() ?? 0,
+      total: (map['total'] as num?)?.toInt() ?? 0,
+      state: map['state']?.toString() ?? '',
+    );
+  }
+}
+
 class WearListeningState {
   const WearListeningState({
     required this.listening,
@@ -480,6 +747,152 @@ class WearListeningState {
   }
 }
 
+class WearPayloadInfo {
+  const WearPayloadInfo({
+    required this.version,
+    required this.bytes,
+    this.delta = false,
+  });
+
+  final int version;
+  final int bytes;
+  final bool delta;
+
+  factory WearPayloadInfo.fromMap(Map<String, dynamic> map) {
+    return WearPayloadInfo(
+      version: (map['version'] as num?)?.toInt() ?? 0,
+      bytes: (map['bytes'] as num?)?.toInt() ?? 0,
+      delta: map['delta'] == true,
+    );
+  }
+}
+
+class WearSyncStats {
+  const WearSyncStats({
+    required this.attempts,
+    required this.elapsed,
+    this.timeout,
+    this.adaptive = false,
+  });
+
+  final int attempts;
+  final Duration elapsed;
+
+  /// 本次握手使用的超时
+  final Duration? timeout;
+
+  /// 探测间隔和超时是否来自该设备的历史耗时
+  final bool adaptive;
+
+  factory WearSyncStats.fromMap(Map<String, dynamic> map) {
+    final timeoutMs = (map['timeoutMs'] as num?)?.toInt();
+    return WearSyncStats(
+      attempts: (map['attempts'] as num?)?.toInt() ?? 0,
+      elapsed: Duration(milliseconds: (map['elapsedMs'] as num?)?.toInt() ?? 0),
+      timeout: timeoutMs != null ? Duration(milliseconds: timeoutMs) : null,
+      adaptive: map['adaptive'] == true,
+    );
+  }
+}
+
+class WearOperationMetrics {
+  const WearOperationMetrics({
+    required this.name,
+    required this.count,
+    required this.failures,
+    required this.mean,
+    required this.p50,
+    required this.p95,
+    required this.max,
+    required this.buckets,
+  });
+
+  final String name;
+  final int count;
+  final int failures;
+  final Duration mean;
+  final Duration p50;
+  final Duration p95;
+  final Duration max;
+  final List<int> buckets;
+
+  factory WearOperationMetrics.fromMap(String name, Map<String, dynamic> map) {
+    Duration ms(String key) => Duration(milliseconds: (map[key] as num?)?.toInt() ?? 0);
+    final rawBuckets = map['buckets'];
+    return WearOperationMetrics(
+      name: name,
+      count: (map['count'] as num?)?.toInt() ?? 0,
+      failures: (map['failures'] as num?)?.toInt() ?? 0,
+      mean: ms('meanMs'),
+      p50: ms('p50Ms'),
+      p95: ms('p95Ms'),
+      max: ms('maxMs'),
+      buckets: rawBuckets is List ? rawBuckets.map((e) => (e as num).toInt()).toList() : const <int>[],
+    );
+  }
+}
+
+class WearMetricsSnapshot {
+  const WearMetricsSnapshot({
+    required this.operations,
+    required this.bucketBoundsMs,
+    required this.failuresByCode,
+    required this.bytesSent,
+    required this.bytesReceived,
+    required this.messagesSent,
+    required this.messagesReceived,
+    required this.window,
+  });
+
+  final List<WearOperationMetrics> operations;
+  final List<int> bucketBoundsMs;
+  final Map<String, int> failuresByCode;
+  final int bytesSent;
+  final int bytesReceived;
+  final int messagesSent;
+  final int messagesReceived;
+  final Duration window;
+
+  factory WearMetricsSnapshot.fromMap(Map<String, dynamic> map) {
+    final rawOperations = map['operations'] is Map ? Map<String, dynamic>.from(map['operations'] as Map) : {};
+    final rawFailures = map['failuresByCode'] is Map ? Map<String, dynamic>.from(map['failuresByCode'] as Map) : {};
+    final rawBounds = map['bucketBoundsMs'];
+    return WearMetricsSnapshot(
+      operations: rawOperations.entries
+          .map((e) => WearOperationMetrics.fromMap(e.key, Map<String, dynamic>.from(e.value as Map)))
+          .toList(),
+      bucketBoundsMs: rawBounds is List ? rawBounds.map((e) => (e as num).toInt()).toList() : const <int>[],
+      failuresByCode: rawFailures.map((key, value) => MapEntry(key, (value as num).toInt())),
+      bytesSent: (map['bytesSent'] as num?)?.toInt() ?? 0,
+      bytesReceived: (map['bytesReceived'] as num?)?.toInt() ?? 0,
+      messagesSent: (map['messagesSent'] as num?)?.toInt() ?? 0,
+      messagesReceived: (map['messagesReceived'] as num?)?.toInt() ?? 0,
+      window: Duration(milliseconds: (map['windowMs'] as num?)?.toInt() ?? 0),
+    );
+  }
+}
+
+class WearBackgroundSyncStatus {
+  const WearBackgroundSyncStatus({
+    required this.scheduled,
+    required this.interval,
+    this.lastSyncAt,
+  });
+
+  final bool scheduled;
+  final Duration interval;
+  final DateTime? lastSyncAt;
+
+  factory WearBackgroundSyncStatus.fromMap(Map<String, dynamic> map) {
+    final lastSyncMs = (map['lastSyncAt'] as num?)?.toInt() ?? 0;
+    return WearBackgroundSyncStatus(
+      scheduled: map['scheduled'] == true,
+      interval: Duration(minutes: (map['intervalMinutes'] as num?)?.toInt() ?? 0),
+      lastSyncAt: lastSyncMs > 0 ? DateTime.fromMillisecondsSinceEpoch(lastSyncMs) : null,
+    );
+  }
+}
+
 class WearableOperationResult<T> {
   const WearableOperationResult({
     required this.success,
@@ -489,6 +902,7 @@ class WearableOperationResult<T> {
     this.hints = const <String>[],
     this.details,
     this.retryable = false,
+    this.attempts = 1,
   });
 
   final bool success;
@@ -499,6 +913,9 @@ class WearableOperationResult<T> {
   final String? details;
   final bool retryable;
 
+  /// 原生层自动重试后的总尝试次数，未重试时为 1
+  final int attempts;
+
   WearableOperationResult<R> map<R>(R? Function(T? data) convert) {
     return WearableOperationResult<R>(
       success: success,
@@ -508,6 +925,7 @@ class WearableOperationResult<T> {
       hints: hints,
       details: details,
       retryable: retryable,
+      attempts: attempts,
     );
   }
 
@@ -522,6 +940,7 @@ class WearableOperationResult<T> {
     final hintsRaw = map['hints'];
     final detailsRaw = map['details'];
     final retryable = map['retryable'] == true;
+    final attempts = (map['attempts'] as num?)?.toInt() ?? 1;
 
     final parsedHints = hintsRaw is List
         ? hintsRaw.map((hint) => hint.toString()).toList()
@@ -535,6 +954,7 @@ class WearableOperationResult<T> {
       hints: parsedHints,
       details: detailsRaw?.toString(),
       retryable: retryable,
+      attempts: attempts,
     );
   }
 }